@@ -0,0 +1,99 @@
+package com.thenakliman.tries;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+public class ResourceCloseStressTest {
+
+  @JCStressTest
+  @Description("every done() of a shared executor closes its resource exactly once, on success and on failure")
+  @Outcome(id = "2, 2", expect = ACCEPTABLE, desc = "each execution closed each resource once")
+  @Outcome(expect = FORBIDDEN, desc = "a close was lost or repeated")
+  @State
+  public static class SharedExecutor {
+    final private CountingResource succeedingResource = new CountingResource();
+    final private CountingResource failingResource = new CountingResource();
+    final private TryToGet.Executor<Integer> succeeding = Try.withResources(this.succeedingResource)
+            .toGet(() -> 10)
+            .ifRaises(IllegalStateException.class)
+            .thenGet((exception) -> 20);
+    final private TryToGet.Executor<Integer> failing = Try.withResources(this.failingResource)
+            .<Integer>toGet(() -> {
+              throw new IllegalStateException("failed");
+            })
+            .ifRaises(IllegalStateException.class)
+            .thenGet((exception) -> 20);
+
+    @Actor
+    public void first() {
+      this.succeeding.done();
+      this.failing.done();
+    }
+
+    @Actor
+    public void second() {
+      this.succeeding.done();
+      this.failing.done();
+    }
+
+    @Arbiter
+    public void arbiter(final II_Result result) {
+      result.r1 = this.succeedingResource.closes.get();
+      result.r2 = this.failingResource.closes.get();
+    }
+  }
+
+  @JCStressTest
+  @Description("callers joining a single flight close their own resources exactly once")
+  @Outcome(id = "1, 1", expect = ACCEPTABLE, desc = "leader and joiner closed their resource once")
+  @Outcome(expect = FORBIDDEN, desc = "a close was lost or repeated")
+  @State
+  public static class SingleFlightJoin {
+    final private SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+    final private CountingResource firstResource = new CountingResource();
+    final private CountingResource secondResource = new CountingResource();
+
+    @Actor
+    public void first() {
+      Try.withResources(this.firstResource)
+              .toGet(() -> 10)
+              .ifRaises(IllegalStateException.class)
+              .thenGet((exception) -> 20)
+              .singleFlightDone(this.singleFlight, "user");
+    }
+
+    @Actor
+    public void second() {
+      Try.withResources(this.secondResource)
+              .toGet(() -> 10)
+              .ifRaises(IllegalStateException.class)
+              .thenGet((exception) -> 20)
+              .singleFlightDone(this.singleFlight, "user");
+    }
+
+    @Arbiter
+    public void arbiter(final II_Result result) {
+      result.r1 = this.firstResource.closes.get();
+      result.r2 = this.secondResource.closes.get();
+    }
+  }
+
+  static class CountingResource implements AutoCloseable {
+    final private AtomicInteger closes = new AtomicInteger();
+
+    @Override
+    public void close() {
+      this.closes.incrementAndGet();
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package com.thenakliman.tries;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+public class SharedExecutorDoneStressTest {
+
+  @JCStressTest
+  @Description("done() of a shared TryToGet executor returns the supplied value to every caller")
+  @Outcome(id = "1, 2", expect = ACCEPTABLE, desc = "first actor supplied first")
+  @Outcome(id = "2, 1", expect = ACCEPTABLE, desc = "second actor supplied first")
+  @Outcome(expect = FORBIDDEN, desc = "a value was lost or handed out twice")
+  @State
+  public static class ToGet {
+    final private AtomicInteger calls = new AtomicInteger();
+    final private TryToGet.Executor<Integer> executor = Try.toGet(this.calls::incrementAndGet)
+            .ifRaises(IllegalStateException.class)
+            .thenGet((exception) -> -1);
+
+    @Actor
+    public void first(final II_Result result) {
+      result.r1 = this.executor.done();
+    }
+
+    @Actor
+    public void second(final II_Result result) {
+      result.r2 = this.executor.done();
+    }
+  }
+
+  @JCStressTest
+  @Description("done() of a shared TryToGet executor runs the matched handler for every failing caller")
+  @Outcome(id = "20, 20", expect = ACCEPTABLE, desc = "both failures are handled")
+  @Outcome(expect = FORBIDDEN, desc = "a failure was not handled")
+  @State
+  public static class ToGetHandled {
+    final private TryToGet.Executor<Integer> executor = Try.<Integer>toGet(() -> {
+      throw new IllegalStateException("failed");
+    })
+            .ifRaises(IllegalArgumentException.class)
+            .thenGet((exception) -> 10)
+            .elseIfRaises(IllegalStateException.class)
+            .thenGet((exception) -> 20);
+
+    @Actor
+    public void first(final II_Result result) {
+      result.r1 = this.executor.done();
+    }
+
+    @Actor
+    public void second(final II_Result result) {
+      result.r2 = this.executor.done();
+    }
+  }
+
+  @JCStressTest
+  @Description("done() of a shared TryToCall executor calls the callable and else callable once per caller")
+  @Outcome(id = "2, 2", expect = ACCEPTABLE, desc = "both executions are complete")
+  @Outcome(expect = FORBIDDEN, desc = "a call was lost")
+  @State
+  public static class ToCall {
+    final private AtomicInteger calls = new AtomicInteger();
+    final private AtomicInteger elseCalls = new AtomicInteger();
+    final private TryToCall.IExecutor executor = Try.toCall(this.calls::incrementAndGet)
+            .ifRaises(IllegalStateException.class)
+            .thenCall((exception) -> {
+            })
+            .elseCall(this.elseCalls::incrementAndGet);
+
+    @Actor
+    public void first() {
+      this.executor.done();
+    }
+
+    @Actor
+    public void second() {
+      this.executor.done();
+    }
+
+    @Arbiter
+    public void arbiter(final II_Result result) {
+      result.r1 = this.calls.get();
+      result.r2 = this.elseCalls.get();
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package com.thenakliman.tries;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.III_Result;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+public class SharedPolicyStressTest {
+
+  @JCStressTest
+  @Description("a concurrency limiter shared by concurrent executions admits up to its limit and releases every permit")
+  @Outcome(id = "1, 1, 0", expect = ACCEPTABLE, desc = "both admitted, one at a time or together")
+  @Outcome(id = "1, 0, 0", expect = ACCEPTABLE, desc = "second rejected while first was in flight")
+  @Outcome(id = "0, 1, 0", expect = ACCEPTABLE, desc = "first rejected while second was in flight")
+  @Outcome(expect = FORBIDDEN, desc = "both rejected or a permit leaked")
+  @State
+  public static class ConcurrencyLimiter {
+    final private AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, Duration.ofSeconds(1));
+    final private Policy policy = Policy.named("stress").withConcurrencyLimiter(this.limiter);
+
+    @Actor
+    public void first(final III_Result result) {
+      result.r1 = execute();
+    }
+
+    @Actor
+    public void second(final III_Result result) {
+      result.r2 = execute();
+    }
+
+    @Arbiter
+    public void arbiter(final III_Result result) {
+      result.r3 = this.limiter.getInFlight();
+    }
+
+    private int execute() {
+      return Try.withPolicy(this.policy)
+              .toGet(() -> 1)
+              .ifRaises(ConcurrencyLimitExceededException.class)
+              .thenGet((exception) -> 0)
+              .done();
+    }
+  }
+
+  @JCStressTest
+  @Description("a memoized supplier shared by concurrent executions loads the value once")
+  @Outcome(id = "1, 1", expect = ACCEPTABLE, desc = "loaded once, both callers see the value")
+  @Outcome(expect = FORBIDDEN, desc = "loaded twice or a caller saw no value")
+  @State
+  public static class Memoized {
+    final private AtomicInteger loads = new AtomicInteger();
+    final private TryToGet.Executor<Integer> executor = Try
+            .toGetMemoized(this.loads::incrementAndGet, Duration.ofHours(1), Runnable::run)
+            .ifRaises(IllegalStateException.class)
+            .thenGet((exception) -> -1);
+
+    @Actor
+    public void first(final II_Result result) {
+      result.r1 = this.executor.done();
+    }
+
+    @Actor
+    public void second(final II_Result result) {
+      result.r2 = this.executor.done();
+    }
+
+    @Arbiter
+    public void arbiter(final II_Result result) {
+      if (this.loads.get() != 1) {
+        result.r1 = -this.loads.get();
+      }
+    }
+  }
+}
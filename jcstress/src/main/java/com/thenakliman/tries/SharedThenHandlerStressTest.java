@@ -0,0 +1,41 @@
+package com.thenakliman.tries;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+@JCStressTest
+@Description("chains built concurrently from a shared ThenHandler do not see each other's handlers")
+@Outcome(id = "1, 2", expect = ACCEPTABLE, desc = "every chain runs its own handlers")
+@Outcome(expect = FORBIDDEN, desc = "a handler registered by the other thread leaked into the chain")
+@State
+public class SharedThenHandlerStressTest {
+  final private TryToGet.ThenHandler<Integer> thenHandler = Try.<Integer>toGet(() -> {
+    throw new IllegalStateException("failed");
+  })
+          .ifRaises(IllegalArgumentException.class);
+
+  @Actor
+  public void first(final II_Result result) {
+    result.r1 = this.thenHandler
+            .thenGet((exception) -> 0)
+            .elseIfRaises(IllegalStateException.class)
+            .thenGet((exception) -> 1)
+            .done();
+  }
+
+  @Actor
+  public void second(final II_Result result) {
+    result.r2 = this.thenHandler
+            .thenGet((exception) -> 0)
+            .elseIfRaises(IllegalStateException.class)
+            .thenGet((exception) -> 2)
+            .done();
+  }
+}
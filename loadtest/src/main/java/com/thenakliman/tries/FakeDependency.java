@@ -0,0 +1,140 @@
+package com.thenakliman.tries;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.thenakliman.tries.SneakyThrower.sneakyThrow;
+
+// in-process stand-in of a remote dependency, with latency, errors and stalls while closing connections
+class FakeDependency {
+  final private LatencyDistribution latency;
+  final private List<InjectedError> errors;
+  final private long closeStallNanos;
+  final private double closeStallProbability;
+  final private LongAdder closeStalls = new LongAdder();
+
+  FakeDependency(final LatencyDistribution latency,
+                 final List<InjectedError> errors,
+                 final long closeStallNanos,
+                 final double closeStallProbability) {
+    this.latency = latency;
+    this.errors = errors;
+    this.closeStallNanos = closeStallNanos;
+    this.closeStallProbability = closeStallProbability;
+  }
+
+  Connection open() {
+    return new Connection();
+  }
+
+  long getCloseStalls() {
+    return this.closeStalls.sum();
+  }
+
+  class Connection implements AutoCloseable {
+    Integer call() {
+      final ThreadLocalRandom random = ThreadLocalRandom.current();
+      LockSupport.parkNanos(latency.nextNanos(random));
+      for (InjectedError error : errors) {
+        if (random.nextDouble() < error.probability) {
+          throw sneakyThrow(error.create());
+        }
+      }
+
+      return 1;
+    }
+
+    @Override
+    public void close() {
+      if (closeStallNanos > 0 && ThreadLocalRandom.current().nextDouble() < closeStallProbability) {
+        closeStalls.increment();
+        LockSupport.parkNanos(closeStallNanos);
+      }
+    }
+  }
+
+  interface LatencyDistribution {
+    long nextNanos(ThreadLocalRandom random);
+
+    // fixed:2ms, uniform:1ms:10ms, lognormal:<median>:<sigma> or bimodal:<fast>:<slow>:<slow probability>
+    static LatencyDistribution parse(final String value) {
+      final String[] parts = value.split(":");
+      switch (parts[0]) {
+        case "fixed": {
+          final long nanos = LoadTestOptions.parseNanos(parts[1]);
+          return (random) -> nanos;
+        }
+        case "uniform": {
+          final long minimumNanos = LoadTestOptions.parseNanos(parts[1]);
+          final long maximumNanos = LoadTestOptions.parseNanos(parts[2]);
+          return (random) -> minimumNanos + (long) (random.nextDouble() * (maximumNanos - minimumNanos));
+        }
+        case "lognormal": {
+          final long medianNanos = LoadTestOptions.parseNanos(parts[1]);
+          final double sigma = Double.parseDouble(parts[2]);
+          return (random) -> (long) (medianNanos * Math.exp(sigma * random.nextGaussian()));
+        }
+        case "bimodal": {
+          final long fastNanos = LoadTestOptions.parseNanos(parts[1]);
+          final long slowNanos = LoadTestOptions.parseNanos(parts[2]);
+          final double slowProbability = Double.parseDouble(parts[3]);
+          return (random) -> random.nextDouble() < slowProbability ? slowNanos : fastNanos;
+        }
+        default:
+          throw new IllegalArgumentException("unknown latency distribution " + value);
+      }
+    }
+  }
+
+  static class InjectedError {
+    final private Class<? extends Throwable> exceptionClass;
+    final private double probability;
+
+    InjectedError(final Class<? extends Throwable> exceptionClass, final double probability) {
+      this.exceptionClass = exceptionClass;
+      this.probability = probability;
+    }
+
+    Class<? extends Throwable> getExceptionClass() {
+      return this.exceptionClass;
+    }
+
+    // java.io.IOException:0.01,java.lang.IllegalStateException:0.001
+    static List<InjectedError> parse(final String value) {
+      if (value.isEmpty()) {
+        return Collections.emptyList();
+      }
+
+      final List<InjectedError> errors = new ArrayList<>();
+      for (String error : value.split(",")) {
+        final int separator = error.lastIndexOf(':');
+        final Class<? extends Throwable> exceptionClass = exceptionClass(error.substring(0, separator));
+        errors.add(new InjectedError(exceptionClass, Double.parseDouble(error.substring(separator + 1))));
+      }
+
+      return errors;
+    }
+
+    private Throwable create() {
+      try {
+        return this.exceptionClass.getConstructor(String.class).newInstance("injected by fake dependency");
+      } catch (ReflectiveOperationException exception) {
+        return new IllegalStateException("could not create " + this.exceptionClass.getName(), exception);
+      }
+    }
+
+    private static Class<? extends Throwable> exceptionClass(final String name) {
+      try {
+        final Class<? extends Throwable> exceptionClass = Class.forName(name).asSubclass(Throwable.class);
+        exceptionClass.getConstructor(String.class);
+        return exceptionClass;
+      } catch (ReflectiveOperationException | ClassCastException exception) {
+        throw new IllegalArgumentException(name + " is not an exception with a message constructor", exception);
+      }
+    }
+  }
+}
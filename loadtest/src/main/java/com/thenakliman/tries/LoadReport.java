@@ -0,0 +1,139 @@
+package com.thenakliman.tries;
+
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.thenakliman.tries.TryMetrics.Outcome.HANDLED;
+import static com.thenakliman.tries.TryMetrics.Outcome.RETHROWN;
+import static com.thenakliman.tries.TryMetrics.Outcome.SUCCESS;
+
+// prints throughput, latency percentiles, outcomes and GC activity of every interval, and a summary of the whole run
+class LoadReport {
+  final private static String HEADER = String.format("%8s %10s %10s %9s %9s %9s %9s %9s %9s %9s %6s %8s",
+          "time s", "req/s", "success", "handled", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "in flight",
+          "gc", "gc ms");
+
+  final private StripedCounterMetrics metrics;
+  final private String policyName;
+  final private PrintStream out;
+  final private LatencyHistogram intervalLatencies = new LatencyHistogram();
+  final private LatencyHistogram totalLatencies = new LatencyHistogram();
+  final private long startNanos;
+  final private long startGcCount;
+  final private long startGcMillis;
+
+  private long lastNanos;
+  private long lastSuccess;
+  private long lastHandled;
+  private long lastGcCount;
+  private long lastGcMillis;
+  private int intervals;
+
+  LoadReport(final StripedCounterMetrics metrics, final String policyName, final PrintStream out) {
+    this.metrics = metrics;
+    this.policyName = policyName;
+    this.out = out;
+    this.startNanos = System.nanoTime();
+    this.lastNanos = this.startNanos;
+    this.startGcCount = gcCount();
+    this.startGcMillis = gcMillis();
+    this.lastGcCount = this.startGcCount;
+    this.lastGcMillis = this.startGcMillis;
+  }
+
+  void record(final long latencyNanos) {
+    this.intervalLatencies.record(latencyNanos);
+    this.totalLatencies.record(latencyNanos);
+  }
+
+  synchronized void printInterval(final long inFlight) {
+    final long now = System.nanoTime();
+    final LatencyHistogram.Snapshot latencies = this.intervalLatencies.snapshotAndReset();
+    final long success = this.metrics.getCount(this.policyName, SUCCESS);
+    final long handled = this.metrics.getCount(this.policyName, HANDLED);
+    final long gcCount = gcCount();
+    final long gcMillis = gcMillis();
+
+    if (this.intervals++ % 20 == 0) {
+      this.out.println(HEADER);
+    }
+
+    this.out.println(String.format("%8.1f %10.0f %10d %9d %9.2f %9.2f %9.2f %9.2f %9.2f %9d %6d %8d",
+            seconds(now - this.startNanos),
+            latencies.getCount() / seconds(now - this.lastNanos),
+            success - this.lastSuccess,
+            handled - this.lastHandled,
+            millis(latencies.getPercentile(50)),
+            millis(latencies.getPercentile(90)),
+            millis(latencies.getPercentile(99)),
+            millis(latencies.getPercentile(99.9)),
+            millis(latencies.getMax()),
+            inFlight,
+            gcCount - this.lastGcCount,
+            gcMillis - this.lastGcMillis));
+
+    this.lastNanos = now;
+    this.lastSuccess = success;
+    this.lastHandled = handled;
+    this.lastGcCount = gcCount;
+    this.lastGcMillis = gcMillis;
+  }
+
+  synchronized void printSummary(final long closeStalls) {
+    final double elapsedSeconds = seconds(System.nanoTime() - this.startNanos);
+    final LatencyHistogram.Snapshot latencies = this.totalLatencies.snapshot();
+
+    this.out.println();
+    this.out.println(String.format("requests     %d in %.1f s, %.0f req/s", latencies.getCount(), elapsedSeconds,
+            latencies.getCount() / elapsedSeconds));
+    this.out.println(String.format("latency ms   p50 %.2f, p90 %.2f, p99 %.2f, p99.9 %.2f, p99.99 %.2f, max %.2f, mean %.2f",
+            millis(latencies.getPercentile(50)),
+            millis(latencies.getPercentile(90)),
+            millis(latencies.getPercentile(99)),
+            millis(latencies.getPercentile(99.9)),
+            millis(latencies.getPercentile(99.99)),
+            millis(latencies.getMax()),
+            latencies.getMean() / TimeUnit.MILLISECONDS.toNanos(1)));
+    this.out.println(String.format("outcomes     success %d, handled %d, rethrown %d",
+            this.metrics.getCount(this.policyName, SUCCESS),
+            this.metrics.getCount(this.policyName, HANDLED),
+            this.metrics.getCount(this.policyName, RETHROWN)));
+    for (Map.Entry<Class<? extends Throwable>, Long> exceptionCount
+            : this.metrics.getExceptionCounts(this.policyName).entrySet()) {
+      this.out.println(String.format("exception    %s %d", exceptionCount.getKey().getName(), exceptionCount.getValue()));
+    }
+
+    this.out.println(String.format("close stalls %d", closeStalls));
+    this.out.println(String.format("gc           %d collections, %d ms", gcCount() - this.startGcCount,
+            gcMillis() - this.startGcMillis));
+  }
+
+  private static double seconds(final long nanos) {
+    return nanos / (double) TimeUnit.SECONDS.toNanos(1);
+  }
+
+  private static double millis(final long nanos) {
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  private static long gcCount() {
+    long count = 0;
+    for (GarbageCollectorMXBean garbageCollector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(0, garbageCollector.getCollectionCount());
+    }
+
+    return count;
+  }
+
+  private static long gcMillis() {
+    long millis = 0;
+    for (GarbageCollectorMXBean garbageCollector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      millis += Math.max(0, garbageCollector.getCollectionTime());
+    }
+
+    return millis;
+  }
+}
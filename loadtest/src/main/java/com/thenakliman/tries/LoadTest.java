@@ -0,0 +1,116 @@
+package com.thenakliman.tries;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// drives a policy against a fake dependency, see LoadTestOptions.USAGE
+public class LoadTest {
+  final private static String POLICY_NAME = "fake-dependency";
+  final private static int FALLBACK = 0;
+
+  final private LoadTestOptions options;
+  final private FakeDependency dependency;
+  final private Policy policy;
+  final private LoadReport report;
+  final private AtomicLong nextRequest = new AtomicLong();
+  final private AtomicLong inFlight = new AtomicLong();
+
+  private long startNanos;
+  private long endNanos;
+
+  LoadTest(final LoadTestOptions options) {
+    final StripedCounterMetrics metrics = new StripedCounterMetrics();
+    this.options = options;
+    this.dependency = options.newDependency();
+    this.policy = options.newPolicy(POLICY_NAME, metrics);
+    this.report = new LoadReport(metrics, POLICY_NAME, System.out);
+  }
+
+  public static void main(final String[] arguments) throws InterruptedException {
+    final LoadTestOptions options;
+    try {
+      options = LoadTestOptions.parse(arguments);
+    } catch (RuntimeException exception) {
+      System.err.println(exception.getMessage());
+      System.err.println(LoadTestOptions.USAGE);
+      System.exit(2);
+      return;
+    }
+
+    new LoadTest(options).run();
+  }
+
+  void run() throws InterruptedException {
+    this.startNanos = System.nanoTime();
+    this.endNanos = this.startNanos + this.options.getDurationNanos();
+
+    final List<Thread> workers = new ArrayList<>();
+    for (int i = 0; i < this.options.getThreads(); i++) {
+      final Thread worker = new Thread(
+              this.options.getMode() == LoadTestOptions.Mode.OPEN ? this::runOpenLoop : this::runClosedLoop,
+              "load-" + i);
+      worker.setDaemon(true);
+      worker.start();
+      workers.add(worker);
+    }
+
+    long nextReportNanos = this.startNanos + this.options.getReportIntervalNanos();
+    while (nextReportNanos <= this.endNanos) {
+      LockSupport.parkNanos(nextReportNanos - System.nanoTime());
+      this.report.printInterval(this.inFlight.get());
+      nextReportNanos += this.options.getReportIntervalNanos();
+    }
+
+    for (Thread worker : workers) {
+      worker.join();
+    }
+
+    this.report.printSummary(this.dependency.getCloseStalls());
+  }
+
+  private void runClosedLoop() {
+    for (long start = System.nanoTime(); start < this.endNanos; start = System.nanoTime()) {
+      execute();
+      this.report.record(System.nanoTime() - start);
+    }
+  }
+
+  // requests are due at fixed intervals from the start, a worker that falls behind sends the overdue
+  // requests immediately and their latency includes the time they waited for a worker
+  private void runOpenLoop() {
+    final double intervalNanos = 1_000_000_000d / this.options.getRate();
+    for (; ; ) {
+      final long dueNanos = this.startNanos + (long) (this.nextRequest.getAndIncrement() * intervalNanos);
+      if (dueNanos >= this.endNanos) {
+        return;
+      }
+
+      final long waitNanos = dueNanos - System.nanoTime();
+      if (waitNanos > 0) {
+        LockSupport.parkNanos(waitNanos);
+      }
+
+      execute();
+      this.report.record(System.nanoTime() - dueNanos);
+    }
+  }
+
+  // --errors accepts any Throwable, an Error which is not handled would end the worker and under-report the run
+  @SuppressWarnings("unchecked")
+  private int execute() {
+    this.inFlight.incrementAndGet();
+    try {
+      final FakeDependency.Connection connection = this.dependency.open();
+      return Try.withPolicy(this.policy)
+              .withResources(connection)
+              .toGet(connection::call)
+              .ifRaises(Throwable.class)
+              .thenGet((exception) -> FALLBACK)
+              .done();
+    } finally {
+      this.inFlight.decrementAndGet();
+    }
+  }
+}
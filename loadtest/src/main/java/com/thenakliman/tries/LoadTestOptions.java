@@ -0,0 +1,131 @@
+package com.thenakliman.tries;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class LoadTestOptions {
+  enum Mode {
+    // every thread sends the next request when the previous one is done, throughput follows latency
+    CLOSED,
+    // requests are sent at a fixed rate whatever the latency, and latency counts from when a request was due,
+    // so that a slow dependency can not hide its tail by delaying the requests that would have seen it
+    OPEN
+  }
+
+  final static String USAGE = "usage: LoadTest [--mode=closed|open] [--threads=16] [--rate=1000] [--duration=30s]\n"
+          + "                [--report-interval=1s] [--latency=lognormal:2ms:0.5] [--errors=java.io.IOException:0.01]\n"
+          + "                [--close-stall=50ms:0.001] [--timeout=100ms] [--concurrency-limit=64]\n"
+          + "  --latency         fixed:<d>, uniform:<min>:<max>, lognormal:<median>:<sigma>,\n"
+          + "                    bimodal:<fast>:<slow>:<slow probability>\n"
+          + "  --errors          comma separated <exception class>:<probability>\n"
+          + "  --close-stall     <stall>:<probability> of closing a connection\n"
+          + "  --rate            requests per second of the open mode";
+
+  final private Mode mode;
+  final private int threads;
+  final private double rate;
+  final private long durationNanos;
+  final private long reportIntervalNanos;
+  final private FakeDependency.LatencyDistribution latency;
+  final private List<FakeDependency.InjectedError> errors;
+  final private long closeStallNanos;
+  final private double closeStallProbability;
+  final private long timeoutNanos;
+  final private int concurrencyLimit;
+
+  private LoadTestOptions(final Map<String, String> options) {
+    this.mode = Mode.valueOf(take(options, "mode", "closed").toUpperCase());
+    this.threads = Integer.parseInt(take(options, "threads", "16"));
+    this.rate = Double.parseDouble(take(options, "rate", "1000"));
+    this.durationNanos = parseNanos(take(options, "duration", "30s"));
+    this.reportIntervalNanos = parseNanos(take(options, "report-interval", "1s"));
+    this.latency = FakeDependency.LatencyDistribution.parse(take(options, "latency", "lognormal:2ms:0.5"));
+    this.errors = FakeDependency.InjectedError.parse(take(options, "errors", ""));
+    final String[] closeStall = take(options, "close-stall", "0ms:0").split(":");
+    this.closeStallNanos = parseNanos(closeStall[0]);
+    this.closeStallProbability = Double.parseDouble(closeStall[1]);
+    this.timeoutNanos = parseNanos(take(options, "timeout", "0ms"));
+    this.concurrencyLimit = Integer.parseInt(take(options, "concurrency-limit", "0"));
+    if (!options.isEmpty()) {
+      throw new IllegalArgumentException("unknown options " + options.keySet());
+    }
+
+    if (this.threads < 1 || this.rate <= 0 || this.durationNanos <= 0 || this.reportIntervalNanos <= 0) {
+      throw new IllegalArgumentException("threads, rate, duration and report interval must be positive");
+    }
+  }
+
+  static LoadTestOptions parse(final String[] arguments) {
+    final Map<String, String> options = new HashMap<>();
+    for (String argument : arguments) {
+      final int separator = argument.indexOf('=');
+      if (!argument.startsWith("--") || separator < 0) {
+        throw new IllegalArgumentException("expected --<option>=<value>, but was " + argument);
+      }
+
+      options.put(argument.substring(2, separator), argument.substring(separator + 1));
+    }
+
+    return new LoadTestOptions(options);
+  }
+
+  // 250us, 20ms, 5s or 2m
+  static long parseNanos(final String value) {
+    if (value.endsWith("us")) {
+      return Duration.ofNanos(Long.parseLong(value.substring(0, value.length() - 2)) * 1000).toNanos();
+    } else if (value.endsWith("ms")) {
+      return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2))).toNanos();
+    } else if (value.endsWith("s")) {
+      return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1))).toNanos();
+    } else if (value.endsWith("m")) {
+      return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1))).toNanos();
+    }
+
+    throw new IllegalArgumentException("expected a duration like 250us, 20ms, 5s or 2m, but was " + value);
+  }
+
+  private static String take(final Map<String, String> options, final String name, final String defaultValue) {
+    final String value = options.remove(name);
+    return value == null ? defaultValue : value;
+  }
+
+  Mode getMode() {
+    return this.mode;
+  }
+
+  int getThreads() {
+    return this.threads;
+  }
+
+  double getRate() {
+    return this.rate;
+  }
+
+  long getDurationNanos() {
+    return this.durationNanos;
+  }
+
+  long getReportIntervalNanos() {
+    return this.reportIntervalNanos;
+  }
+
+  FakeDependency newDependency() {
+    return new FakeDependency(this.latency, this.errors, this.closeStallNanos, this.closeStallProbability);
+  }
+
+  Policy newPolicy(final String name, final TryMetrics metrics) {
+    Policy policy = Policy.named(name).withMetrics(metrics);
+    if (this.timeoutNanos > 0) {
+      policy = policy.withTimeout(Duration.ofNanos(this.timeoutNanos));
+    }
+
+    if (this.concurrencyLimit > 0) {
+      policy = policy.withConcurrencyLimiter(new AdaptiveConcurrencyLimiter(
+              this.concurrencyLimit, 1, this.concurrencyLimit, Duration.ofNanos(Long.MAX_VALUE)));
+    }
+
+    return policy;
+  }
+}
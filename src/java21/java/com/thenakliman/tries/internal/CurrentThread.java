@@ -0,0 +1,19 @@
+package com.thenakliman.tries.internal;
+
+// JDK 21 version of src/main/java/com/thenakliman/tries/internal/CurrentThread.java
+public final class CurrentThread {
+  public final static long UNKNOWN_ALLOCATED_BYTES = -1;
+
+  private CurrentThread() {
+  }
+
+  public static long allocatedBytes(final com.sun.management.ThreadMXBean threadMXBean) {
+    // the thread MXBean does not track virtual threads, skip the lookup
+    if (Thread.currentThread().isVirtual()) {
+      return UNKNOWN_ALLOCATED_BYTES;
+    }
+
+    // avoids looking the thread up by its id
+    return threadMXBean.getCurrentThreadAllocatedBytes();
+  }
+}
@@ -0,0 +1,50 @@
+package com.thenakliman.tries;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class BenchmarkState {
+  // preallocated, so that both sides measure the cost of handling and not of filling in a stack trace
+  final static IllegalStateException FAILURE = new IllegalStateException("failed");
+
+  @Param({"false", "true"})
+  public boolean failing;
+
+  private int value;
+
+  @Setup
+  public void setUp() {
+    this.value = 10;
+  }
+
+  public int compute() {
+    if (this.failing) {
+      throw FAILURE;
+    }
+
+    return this.value++;
+  }
+
+  public void run() {
+    if (this.failing) {
+      throw FAILURE;
+    }
+
+    this.value++;
+  }
+
+  public void handle(final Throwable exception) {
+    this.value--;
+  }
+
+  public int fallback(final Throwable exception) {
+    return -this.value;
+  }
+
+  public void cleanUp() {
+    this.value = 10;
+  }
+}
@@ -0,0 +1,159 @@
+package com.thenakliman.tries;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// executors and policies are built once and shared by every thread, the nested classes run the same
+// benchmarks with 1 to 64 threads, so that contention on shared state shows up as throughput that
+// does not grow with the thread count
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class ContentionBenchmark {
+
+  @Benchmark
+  public int sharedExecutor(final Shared shared, final Mix mix) {
+    return (mix.nextFails() ? shared.failing : shared.succeeding).done();
+  }
+
+  @Benchmark
+  public int sharedExecutorManyHandlers(final Shared shared, final Mix mix) {
+    return (mix.nextFails() ? shared.failingManyHandlers : shared.succeedingManyHandlers).done();
+  }
+
+  @Benchmark
+  public int sharedPolicyWithCounters(final Shared shared, final Mix mix) {
+    return (mix.nextFails() ? shared.failingWithCounters : shared.succeedingWithCounters).done();
+  }
+
+  @Benchmark
+  public int sharedPolicyWithHistograms(final Shared shared, final Mix mix) {
+    return (mix.nextFails() ? shared.failingWithHistograms : shared.succeedingWithHistograms).done();
+  }
+
+  @Benchmark
+  public int sharedPolicyWithConcurrencyLimiter(final Shared shared, final Mix mix) {
+    return (mix.nextFails() ? shared.failingWithLimiter : shared.succeedingWithLimiter).done();
+  }
+
+  @Threads(1)
+  public static class Threads1 extends ContentionBenchmark {
+  }
+
+  @Threads(4)
+  public static class Threads4 extends ContentionBenchmark {
+  }
+
+  @Threads(16)
+  public static class Threads16 extends ContentionBenchmark {
+  }
+
+  @Threads(64)
+  public static class Threads64 extends ContentionBenchmark {
+  }
+
+  @State(Scope.Benchmark)
+  public static class Shared {
+    TryToGet.Executor<Integer> succeeding;
+    TryToGet.Executor<Integer> failing;
+    TryToGet.Executor<Integer> succeedingManyHandlers;
+    TryToGet.Executor<Integer> failingManyHandlers;
+    TryToGet.Executor<Integer> succeedingWithCounters;
+    TryToGet.Executor<Integer> failingWithCounters;
+    TryToGet.Executor<Integer> succeedingWithHistograms;
+    TryToGet.Executor<Integer> failingWithHistograms;
+    TryToGet.Executor<Integer> succeedingWithLimiter;
+    TryToGet.Executor<Integer> failingWithLimiter;
+
+    @Setup
+    public void setUp() {
+      this.succeeding = oneHandler(Try.toGet(Shared::succeed));
+      this.failing = oneHandler(Try.toGet(Shared::fail));
+      this.succeedingManyHandlers = manyHandlers(Try.toGet(Shared::succeed));
+      this.failingManyHandlers = manyHandlers(Try.toGet(Shared::fail));
+
+      final Policy withCounters = Policy.named("counters").withMetrics(new StripedCounterMetrics());
+      this.succeedingWithCounters = oneHandler(Try.withPolicy(withCounters).toGet(Shared::succeed));
+      this.failingWithCounters = oneHandler(Try.withPolicy(withCounters).toGet(Shared::fail));
+
+      final Policy withHistograms = Policy.named("histograms").withMetrics(new LatencyHistogramMetrics());
+      this.succeedingWithHistograms = oneHandler(Try.withPolicy(withHistograms).toGet(Shared::succeed));
+      this.failingWithHistograms = oneHandler(Try.withPolicy(withHistograms).toGet(Shared::fail));
+
+      // the limit is never reached, so only the cost of acquiring and releasing is measured
+      final Policy withLimiter = Policy.named("limiter")
+              .withConcurrencyLimiter(new AdaptiveConcurrencyLimiter(1024, 1024, 1024, Duration.ofSeconds(1)));
+      this.succeedingWithLimiter = oneHandler(Try.withPolicy(withLimiter).toGet(Shared::succeed));
+      this.failingWithLimiter = oneHandler(Try.withPolicy(withLimiter).toGet(Shared::fail));
+    }
+
+    private static TryToGet.Executor<Integer> oneHandler(final TryToGet<Integer> toGet) {
+      return toGet
+              .ifRaises(IllegalStateException.class)
+              .thenGet((exception) -> -1);
+    }
+
+    private static TryToGet.Executor<Integer> manyHandlers(final TryToGet<Integer> toGet) {
+      return toGet
+              .ifRaises(IllegalArgumentException.class)
+              .thenGet((exception) -> -2)
+              .elseIfRaises(UnsupportedOperationException.class)
+              .thenGet((exception) -> -3)
+              .elseIfRaises(ArithmeticException.class)
+              .thenGet((exception) -> -4)
+              .elseIfRaises(IllegalStateException.class)
+              .thenGet((exception) -> -1);
+    }
+
+    private static Integer succeed() {
+      return 10;
+    }
+
+    private static Integer fail() {
+      throw BenchmarkState.FAILURE;
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Mix {
+    final private static int PATTERN_SIZE = 1024;
+
+    // 1 is success heavy, 90 is failure heavy
+    @Param({"1", "90"})
+    public int failurePercent;
+
+    private boolean[] failures;
+    private int index;
+
+    @Setup
+    public void setUp() {
+      this.failures = new boolean[PATTERN_SIZE];
+      final Random random = new Random(42);
+      for (int i = 0; i < PATTERN_SIZE; i++) {
+        this.failures[i] = random.nextInt(100) < this.failurePercent;
+      }
+    }
+
+    boolean nextFails() {
+      final boolean fails = this.failures[this.index];
+      this.index = (this.index + 1) & (PATTERN_SIZE - 1);
+      return fails;
+    }
+  }
+}
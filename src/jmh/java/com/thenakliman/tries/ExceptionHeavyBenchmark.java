@@ -0,0 +1,159 @@
+package com.thenakliman.tries;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.CompilerControl;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// chains run from the bottom of a synthetic stack, and failures are freshly created, so that
+// filling in the stack trace is measured as it is paid in production
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionHeavyBenchmark {
+
+  @Benchmark
+  public int tryThenGet(final Workload workload) {
+    return workload.descend(workload.depth, this::tryAndFallBack);
+  }
+
+  @Benchmark
+  public int tryThenThrow(final Workload workload) {
+    try {
+      return workload.descend(workload.depth, this::tryAndTranslate);
+    } catch (IllegalArgumentException exception) {
+      return workload.fallback(exception);
+    }
+  }
+
+  @Benchmark
+  public int handWrittenCatch(final Workload workload) {
+    return workload.descend(workload.depth, this::catchAndFallBack);
+  }
+
+  @Benchmark
+  public int handWrittenRethrow(final Workload workload) {
+    try {
+      return workload.descend(workload.depth, this::catchAndTranslate);
+    } catch (IllegalArgumentException exception) {
+      return workload.fallback(exception);
+    }
+  }
+
+  private int tryAndFallBack(final Workload workload) {
+    return Try.toGet(workload::compute)
+            .ifRaises(FailureException.class)
+            .thenGet(workload::fallback)
+            .done();
+  }
+
+  private int tryAndTranslate(final Workload workload) {
+    return Try.toGet(workload::compute)
+            .ifRaises(FailureException.class)
+            .thenThrow((exception) -> new IllegalArgumentException("translated", exception))
+            .done();
+  }
+
+  private int catchAndFallBack(final Workload workload) {
+    try {
+      return workload.compute();
+    } catch (FailureException exception) {
+      return workload.fallback(exception);
+    }
+  }
+
+  private int catchAndTranslate(final Workload workload) {
+    try {
+      return workload.compute();
+    } catch (FailureException exception) {
+      throw new IllegalArgumentException("translated", exception);
+    }
+  }
+
+  static class FailureException extends RuntimeException {
+    FailureException(final boolean stackTrace) {
+      super("failed", null, false, stackTrace);
+    }
+  }
+
+  interface Body {
+    int run(Workload workload);
+  }
+
+  @State(Scope.Thread)
+  public static class Workload {
+    final private static int PATTERN_SIZE = 1024;
+
+    @Param({"10", "50", "100", "500"})
+    public int depth;
+
+    @Param({"0", "1", "10", "50", "100"})
+    public int failurePercent;
+
+    // false shows what a stackless mode would save
+    @Param({"true", "false"})
+    public boolean stackTrace;
+
+    private boolean[] failures;
+    private int index;
+    private int value;
+
+    @Setup
+    public void setUp() {
+      // failures are shuffled with a fixed seed, so the branch predictor can not learn them
+      // and every run sees the same sequence
+      this.failures = new boolean[PATTERN_SIZE];
+      final int failing = PATTERN_SIZE * this.failurePercent / 100;
+      for (int i = 0; i < failing; i++) {
+        this.failures[i] = true;
+      }
+
+      final Random random = new Random(42);
+      for (int i = PATTERN_SIZE - 1; i > 0; i--) {
+        final int other = random.nextInt(i + 1);
+        final boolean failure = this.failures[i];
+        this.failures[i] = this.failures[other];
+        this.failures[other] = failure;
+      }
+
+      this.index = 0;
+      this.value = 10;
+    }
+
+    @CompilerControl(CompilerControl.Mode.DONT_INLINE)
+    int descend(final int remaining, final Body body) {
+      if (remaining <= 0) {
+        return body.run(this);
+      }
+
+      return descend(remaining - 1, body) + 1;
+    }
+
+    int compute() {
+      final boolean failure = this.failures[this.index];
+      this.index = (this.index + 1) & (PATTERN_SIZE - 1);
+      if (failure) {
+        throw new FailureException(this.stackTrace);
+      }
+
+      return this.value++;
+    }
+
+    int fallback(final Throwable exception) {
+      return -this.value;
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.thenakliman.tries;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// chains are built once, so that only executing them is measured
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExecutorDoneBenchmark {
+  private TryToGet.Executor<Integer> toGetExecutor;
+  private TryToCall.Executor toCallExecutor;
+
+  @Setup
+  public void setUp(final BenchmarkState state) {
+    this.toGetExecutor = Try.toGet(state::compute)
+            .ifRaises(IllegalStateException.class)
+            .thenGet(state::fallback);
+
+    this.toCallExecutor = Try.toCall(state::run)
+            .ifRaises(IllegalStateException.class)
+            .thenCall(state::handle);
+  }
+
+  @Benchmark
+  public int toGetDone() {
+    return this.toGetExecutor.done();
+  }
+
+  @Benchmark
+  public void toCallDone() {
+    this.toCallExecutor.done();
+  }
+}
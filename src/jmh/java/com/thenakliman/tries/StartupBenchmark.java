@@ -0,0 +1,101 @@
+package com.thenakliman.tries;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// every fork is a fresh JVM that measures its first chain only, so class loading, linking and interpretation
+// are measured. The harness itself uses lambdas and streams, so the JDK side of their bootstrap is already
+// paid and results are a lower bound, StartupProbe measures a first chain outside of the harness
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class StartupBenchmark {
+
+  @Benchmark
+  public int firstToGet() {
+    return Try.toGet(new Value())
+            .ifRaises(IllegalStateException.class)
+            .thenGet(new Fallback())
+            .done();
+  }
+
+  @Benchmark
+  public int firstToGetFailure() {
+    return Try.toGet(new Failure())
+            .ifRaises(IllegalStateException.class)
+            .thenGet(new Fallback())
+            .done();
+  }
+
+  @Benchmark
+  public void firstToCall() {
+    Try.toCall(Constant.DO_NOTHING)
+            .ifRaises(IllegalStateException.class)
+            .thenThrow(new Translation())
+            .done();
+  }
+
+  @Benchmark
+  public int firstWithResources() {
+    return Try.withResources(new Resource(), new Resource())
+            .toGet(new Value())
+            .ifRaises(IllegalStateException.class)
+            .thenGet(new Fallback())
+            .finallyDone(Constant.DO_NOTHING);
+  }
+
+  @Benchmark
+  public int handWritten() {
+    try (Resource first = new Resource(); Resource second = new Resource()) {
+      return new Value().get();
+    } catch (IllegalStateException exception) {
+      return new Fallback().apply(exception);
+    }
+  }
+
+  // classes rather than lambdas, so that only the cost of the library is measured
+  static class Value implements Supplier<Integer> {
+    @Override
+    public Integer get() {
+      return 10;
+    }
+  }
+
+  static class Failure implements Supplier<Integer> {
+    @Override
+    public Integer get() {
+      throw new IllegalStateException("failed");
+    }
+  }
+
+  static class Fallback implements Function<Throwable, Integer> {
+    @Override
+    public Integer apply(final Throwable exception) {
+      return 20;
+    }
+  }
+
+  static class Translation implements Function<Throwable, IllegalArgumentException> {
+    @Override
+    public IllegalArgumentException apply(final Throwable exception) {
+      return new IllegalArgumentException(exception);
+    }
+  }
+
+  static class Resource implements AutoCloseable {
+    @Override
+    public void close() {
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.thenakliman.tries;
+
+import java.util.concurrent.TimeUnit;
+
+// runs the first chains of a fresh JVM outside of JMH and prints how long they took,
+// it is also the training run of the class data sharing archive, see the cdsArchive task
+public class StartupProbe {
+  public static void main(final String[] arguments) {
+    final long start = System.nanoTime();
+    final int value = new StartupBenchmark().firstToGet();
+    final long firstToGetNanos = System.nanoTime() - start;
+    final int fallback = new StartupBenchmark().firstToGetFailure();
+    new StartupBenchmark().firstToCall();
+    new StartupBenchmark().firstWithResources();
+    final long allChainsNanos = System.nanoTime() - start;
+
+    System.out.println("first toGet            " + TimeUnit.NANOSECONDS.toMicros(firstToGetNanos) + " us");
+    System.out.println("first of every chain   " + TimeUnit.NANOSECONDS.toMicros(allChainsNanos) + " us");
+    System.out.println("values                 " + value + ", " + fallback);
+  }
+}
@@ -0,0 +1,118 @@
+package com.thenakliman.tries;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TryToCallBenchmark {
+
+  @Benchmark
+  public void tryNoHandler(final BenchmarkState state) {
+    try {
+      Try.toCall(state::run).done();
+    } catch (IllegalStateException exception) {
+      state.handle(exception);
+    }
+  }
+
+  @Benchmark
+  public void handWrittenNoHandler(final BenchmarkState state) {
+    try {
+      state.run();
+    } catch (IllegalStateException exception) {
+      state.handle(exception);
+    }
+  }
+
+  @Benchmark
+  public void tryOneHandler(final BenchmarkState state) {
+    Try.toCall(state::run)
+            .ifRaises(IllegalStateException.class)
+            .thenCall(state::handle)
+            .done();
+  }
+
+  @Benchmark
+  public void handWrittenOneHandler(final BenchmarkState state) {
+    try {
+      state.run();
+    } catch (IllegalStateException exception) {
+      state.handle(exception);
+    }
+  }
+
+  @Benchmark
+  public void tryManyHandlers(final BenchmarkState state) {
+    Try.toCall(state::run)
+            .ifRaises(IllegalArgumentException.class)
+            .thenCall(state::handle)
+            .elseIfRaises(UnsupportedOperationException.class)
+            .thenCall(state::handle)
+            .elseIfRaises(ArithmeticException.class)
+            .thenCall(state::handle)
+            .elseIfRaises(ArrayStoreException.class)
+            .thenCall(state::handle)
+            .elseIfRaises(ClassCastException.class)
+            .thenCall(state::handle)
+            .elseIfRaises(IndexOutOfBoundsException.class)
+            .thenCall(state::handle)
+            .elseIfRaises(NegativeArraySizeException.class)
+            .thenCall(state::handle)
+            .elseIfRaises(IllegalStateException.class)
+            .thenCall(state::handle)
+            .done();
+  }
+
+  @Benchmark
+  public void handWrittenManyHandlers(final BenchmarkState state) {
+    try {
+      state.run();
+    } catch (IllegalArgumentException exception) {
+      state.handle(exception);
+    } catch (UnsupportedOperationException exception) {
+      state.handle(exception);
+    } catch (ArithmeticException exception) {
+      state.handle(exception);
+    } catch (ArrayStoreException exception) {
+      state.handle(exception);
+    } catch (ClassCastException exception) {
+      state.handle(exception);
+    } catch (IndexOutOfBoundsException exception) {
+      state.handle(exception);
+    } catch (NegativeArraySizeException exception) {
+      state.handle(exception);
+    } catch (IllegalStateException exception) {
+      state.handle(exception);
+    }
+  }
+
+  @Benchmark
+  public void tryFinallyDone(final BenchmarkState state) {
+    Try.toCall(state::run)
+            .ifRaises(IllegalStateException.class)
+            .thenCall(state::handle)
+            .finallyDone(state::cleanUp);
+  }
+
+  @Benchmark
+  public void handWrittenFinally(final BenchmarkState state) {
+    try {
+      state.run();
+    } catch (IllegalStateException exception) {
+      state.handle(exception);
+    } finally {
+      state.cleanUp();
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package com.thenakliman.tries;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// toGet always needs a handler, so there is no variant without one
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TryToGetBenchmark {
+
+  @Benchmark
+  public int tryOneHandler(final BenchmarkState state) {
+    return Try.toGet(state::compute)
+            .ifRaises(IllegalStateException.class)
+            .thenGet(state::fallback)
+            .done();
+  }
+
+  @Benchmark
+  public int handWrittenOneHandler(final BenchmarkState state) {
+    try {
+      return state.compute();
+    } catch (IllegalStateException exception) {
+      return state.fallback(exception);
+    }
+  }
+
+  @Benchmark
+  public int tryManyHandlers(final BenchmarkState state) {
+    return Try.toGet(state::compute)
+            .ifRaises(IllegalArgumentException.class)
+            .thenGet(state::fallback)
+            .elseIfRaises(UnsupportedOperationException.class)
+            .thenGet(state::fallback)
+            .elseIfRaises(ArithmeticException.class)
+            .thenGet(state::fallback)
+            .elseIfRaises(ArrayStoreException.class)
+            .thenGet(state::fallback)
+            .elseIfRaises(ClassCastException.class)
+            .thenGet(state::fallback)
+            .elseIfRaises(IndexOutOfBoundsException.class)
+            .thenGet(state::fallback)
+            .elseIfRaises(NegativeArraySizeException.class)
+            .thenGet(state::fallback)
+            .elseIfRaises(IllegalStateException.class)
+            .thenGet(state::fallback)
+            .done();
+  }
+
+  @Benchmark
+  public int handWrittenManyHandlers(final BenchmarkState state) {
+    try {
+      return state.compute();
+    } catch (IllegalArgumentException exception) {
+      return state.fallback(exception);
+    } catch (UnsupportedOperationException exception) {
+      return state.fallback(exception);
+    } catch (ArithmeticException exception) {
+      return state.fallback(exception);
+    } catch (ArrayStoreException exception) {
+      return state.fallback(exception);
+    } catch (ClassCastException exception) {
+      return state.fallback(exception);
+    } catch (IndexOutOfBoundsException exception) {
+      return state.fallback(exception);
+    } catch (NegativeArraySizeException exception) {
+      return state.fallback(exception);
+    } catch (IllegalStateException exception) {
+      return state.fallback(exception);
+    }
+  }
+
+  @Benchmark
+  public int tryFinallyDone(final BenchmarkState state) {
+    return Try.toGet(state::compute)
+            .ifRaises(IllegalStateException.class)
+            .thenGet(state::fallback)
+            .finallyDone(state::cleanUp);
+  }
+
+  @Benchmark
+  public int handWrittenFinally(final BenchmarkState state) {
+    try {
+      return state.compute();
+    } catch (IllegalStateException exception) {
+      return state.fallback(exception);
+    } finally {
+      state.cleanUp();
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package com.thenakliman.tries;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TryWithResourcesBenchmark {
+
+  @Param({"0", "1", "2", "4", "8"})
+  public int resourceCount;
+
+  private AutoCloseable[] resources;
+  private TryToGet.Executor<Integer> executor;
+
+  @Setup
+  public void setUp(final BenchmarkState state) {
+    this.resources = new AutoCloseable[this.resourceCount];
+    for (int i = 0; i < this.resourceCount; i++) {
+      this.resources[i] = new Resource();
+    }
+
+    this.executor = Try.withResources(this.resources)
+            .toGet(state::compute)
+            .ifRaises(IllegalStateException.class)
+            .thenGet(state::fallback);
+  }
+
+  @Benchmark
+  public int tryWithResources(final BenchmarkState state) {
+    return Try.withResources(this.resources)
+            .toGet(state::compute)
+            .ifRaises(IllegalStateException.class)
+            .thenGet(state::fallback)
+            .done();
+  }
+
+  // chain is built once, so that only executing it and closing the resources is measured
+  @Benchmark
+  public int doneWithResources() {
+    return this.executor.done();
+  }
+
+  @Benchmark
+  public void closeResources() {
+    Utils.closeResources(this.resources, Policy.NONE);
+  }
+
+  // try-with-resources needs a fixed number of resources, closing in reverse order and swallowing failures
+  // is what Try.withResources does
+  @Benchmark
+  public int handWrittenWithResources(final BenchmarkState state) {
+    try {
+      return state.compute();
+    } catch (IllegalStateException exception) {
+      return state.fallback(exception);
+    } finally {
+      for (int i = this.resources.length - 1; i >= 0; i--) {
+        try {
+          this.resources[i].close();
+        } catch (Exception exception) {
+          // swallowed like Try.withResources does
+        }
+      }
+    }
+  }
+
+  static class Resource implements AutoCloseable {
+    private int closed;
+
+    @Override
+    public void close() {
+      this.closed++;
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.thenakliman.tries;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AdaptiveConcurrencyLimiter {
+  final private static double BACKOFF_RATIO = 0.9;
+
+  final private int minimumLimit;
+  final private int maximumLimit;
+  final private long latencyThresholdNanos;
+  final private AtomicInteger limit;
+  final private AtomicInteger inFlight = new AtomicInteger();
+  final private AtomicInteger successesInWindow = new AtomicInteger();
+
+  public AdaptiveConcurrencyLimiter(final int initialLimit,
+                                    final int minimumLimit,
+                                    final int maximumLimit,
+                                    final Duration latencyThreshold) {
+    if (minimumLimit < 1 || minimumLimit > initialLimit || initialLimit > maximumLimit) {
+      throw new IllegalArgumentException("expected 1 <= minimumLimit <= initialLimit <= maximumLimit, but was "
+              + minimumLimit + ", " + initialLimit + ", " + maximumLimit);
+    }
+
+    this.minimumLimit = minimumLimit;
+    this.maximumLimit = maximumLimit;
+    this.latencyThresholdNanos = latencyThreshold.toNanos();
+    this.limit = new AtomicInteger(initialLimit);
+  }
+
+  public int getLimit() {
+    return this.limit.get();
+  }
+
+  public int getInFlight() {
+    return this.inFlight.get();
+  }
+
+  boolean tryAcquire() {
+    for (; ; ) {
+      final int current = this.inFlight.get();
+      if (current >= this.limit.get()) {
+        return false;
+      }
+
+      if (this.inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  void release(final long latencyNanos) {
+    final int inFlightBeforeRelease = this.inFlight.getAndDecrement();
+    if (latencyNanos > this.latencyThresholdNanos) {
+      decrease();
+      return;
+    }
+
+    final int current = this.limit.get();
+    if (inFlightBeforeRelease * 2 < current) {
+      return;
+    }
+
+    // additive increase by one per window of limit fast and utilised calls, about once per round trip at the limit
+    if (this.successesInWindow.incrementAndGet() < current) {
+      return;
+    }
+
+    this.successesInWindow.set(0);
+    this.limit.compareAndSet(current, Math.min(this.maximumLimit, current + 1));
+  }
+
+  private void decrease() {
+    this.successesInWindow.set(0);
+    for (; ; ) {
+      final int current = this.limit.get();
+      final int next = Math.max(this.minimumLimit, (int) (current * BACKOFF_RATIO));
+      if (next == current || this.limit.compareAndSet(current, next)) {
+        return;
+      }
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package com.thenakliman.tries;
+
+import com.thenakliman.tries.internal.CurrentThread;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class AllocationMetrics {
+  public enum Phase {
+    CHAIN,
+    SUPPLIER,
+    HANDLER,
+    CLOSE,
+    EXECUTION
+  }
+
+  final private static com.sun.management.ThreadMXBean THREAD_MX_BEAN = threadMXBean();
+
+  final private ConcurrentMap<String, PolicyAllocations> policyAllocations = new ConcurrentHashMap<>();
+
+  public AllocationMetrics() {
+    if (!isSupported()) {
+      throw new UnsupportedOperationException("thread allocation accounting is not supported by this JVM");
+    }
+  }
+
+  public static boolean isSupported() {
+    return THREAD_MX_BEAN != null;
+  }
+
+  public long getAllocatedBytes(final String policyName, final Phase phase) {
+    final PolicyAllocations allocations = this.policyAllocations.get(policyName);
+    return allocations == null ? 0 : allocations.bytes[phase.ordinal()].sum();
+  }
+
+  public long getCount(final String policyName, final Phase phase) {
+    final PolicyAllocations allocations = this.policyAllocations.get(policyName);
+    return allocations == null ? 0 : allocations.counts[phase.ordinal()].sum();
+  }
+
+  public double getAverageAllocatedBytes(final String policyName, final Phase phase) {
+    final long count = getCount(policyName, phase);
+    return count == 0 ? 0 : (double) getAllocatedBytes(policyName, phase) / count;
+  }
+
+  public Set<String> getPolicyNames() {
+    return Collections.unmodifiableSet(this.policyAllocations.keySet());
+  }
+
+  public void reset() {
+    this.policyAllocations.clear();
+  }
+
+  void record(final String policyName, final Phase phase, final long startBytes, final long endBytes) {
+    // the thread can not be measured, e.g. a virtual thread
+    if (startBytes == CurrentThread.UNKNOWN_ALLOCATED_BYTES || endBytes == CurrentThread.UNKNOWN_ALLOCATED_BYTES) {
+      return;
+    }
+
+    final long allocatedBytes = endBytes - startBytes;
+    PolicyAllocations allocations = this.policyAllocations.get(policyName);
+    if (allocations == null) {
+      allocations = this.policyAllocations.computeIfAbsent(policyName, name -> new PolicyAllocations());
+    }
+
+    allocations.bytes[phase.ordinal()].add(allocatedBytes);
+    allocations.counts[phase.ordinal()].increment();
+  }
+
+  static long currentThreadAllocatedBytes() {
+    return CurrentThread.allocatedBytes(THREAD_MX_BEAN);
+  }
+
+  private static com.sun.management.ThreadMXBean threadMXBean() {
+    try {
+      final java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+      if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+        return null;
+      }
+
+      final com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+      if (!allocationMXBean.isThreadAllocatedMemorySupported()) {
+        return null;
+      }
+
+      allocationMXBean.setThreadAllocatedMemoryEnabled(true);
+      return allocationMXBean;
+    } catch (Throwable throwable) {
+      // com.sun.management is not available on every JVM
+      return null;
+    }
+  }
+
+  private static class PolicyAllocations {
+    final private LongAdder[] bytes = new LongAdder[Phase.values().length];
+    final private LongAdder[] counts = new LongAdder[Phase.values().length];
+
+    PolicyAllocations() {
+      for (int i = 0; i < this.bytes.length; i++) {
+        this.bytes[i] = new LongAdder();
+        this.counts[i] = new LongAdder();
+      }
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package com.thenakliman.tries;
+
+class CompositeMetrics implements TryMetrics {
+  final private TryMetrics[] metrics;
+
+  CompositeMetrics(final TryMetrics first, final TryMetrics second) {
+    this.metrics = new TryMetrics[]{first, second};
+  }
+
+  @Override
+  public void record(final String policyName,
+                     final Outcome outcome,
+                     final Class<? extends Throwable> exceptionClass,
+                     final int handlerIndex,
+                     final long latencyNanos) {
+    for (TryMetrics metric : this.metrics) {
+      metric.record(policyName, outcome, exceptionClass, handlerIndex, latencyNanos);
+    }
+  }
+
+  @Override
+  public void recordPhase(final String policyName, final Phase phase, final long latencyNanos) {
+    for (TryMetrics metric : this.metrics) {
+      metric.recordPhase(policyName, phase, latencyNanos);
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package com.thenakliman.tries;
+
+import java.util.concurrent.RejectedExecutionException;
+
+public class ConcurrencyLimitExceededException extends RejectedExecutionException {
+  public ConcurrencyLimitExceededException(final String policyName, final int limit) {
+    super("concurrency limit of " + limit + " is reached for policy '" + policyName + "'");
+  }
+
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    // thrown when overloaded and always at the same place, stack trace costs more than it tells
+    return this;
+  }
+}
@@ -1,6 +1,12 @@
 package com.thenakliman.tries;
 
 public class Constant {
-  final public static Callable DO_NOTHING = () -> {
-  };
+  // not a lambda, so that using it does not bootstrap an invokedynamic call site
+  final public static Callable DO_NOTHING = new DoNothing();
+
+  private static class DoNothing implements Callable {
+    @Override
+    public void call() {
+    }
+  }
 }
@@ -0,0 +1,35 @@
+package com.thenakliman.tries;
+
+class Deadline {
+  final static long NONE = Long.MIN_VALUE;
+
+  final private static ThreadLocal<Deadline> CURRENT = new ThreadLocal<Deadline>() {
+    @Override
+    protected Deadline initialValue() {
+      return new Deadline();
+    }
+  };
+  private static volatile boolean inUse = false;
+
+  private long nanos = NONE;
+
+  static boolean isInUse() {
+    return inUse;
+  }
+
+  static Deadline current() {
+    return CURRENT.get();
+  }
+
+  long getNanos() {
+    return this.nanos;
+  }
+
+  void setNanos(final long nanos) {
+    if (!inUse) {
+      inUse = true;
+    }
+
+    this.nanos = nanos;
+  }
+}
@@ -0,0 +1,15 @@
+package com.thenakliman.tries;
+
+import java.util.concurrent.TimeoutException;
+
+public class DeadlineExceededException extends TimeoutException {
+  public DeadlineExceededException(final String policyName, final long remainingNanos) {
+    super("remaining budget of " + Math.max(0, remainingNanos) + "ns is too small for policy '" + policyName + "'");
+  }
+
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    // thrown when the caller has already given up, stack trace costs more than it tells
+    return this;
+  }
+}
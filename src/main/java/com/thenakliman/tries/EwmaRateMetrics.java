@@ -0,0 +1,258 @@
+package com.thenakliman.tries;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+public class EwmaRateMetrics implements TryMetrics {
+  final private static Duration TICK_INTERVAL = Duration.ofSeconds(5);
+  final private static Duration WINDOW = Duration.ofMinutes(1);
+  final private static Duration BASELINE_WINDOW = Duration.ofMinutes(15);
+  // failure ratio growth a deviation needs besides the factor, so that single failures over a near zero baseline are not
+  final private static double MINIMUM_DEVIATION = 0.01;
+
+  final private double failureRatioThreshold;
+  final private double deviationFactor;
+  final private RateAnomalyListener listener;
+  final private Executor listenerExecutor;
+  final private LongSupplier nanoClock;
+  final private long tickNanos;
+  final private double alpha;
+  final private double baselineAlpha;
+  final private ConcurrentMap<String, PolicyRates> policyRates = new ConcurrentHashMap<>();
+
+  // the listener is notified on listenerExecutor, not on the thread executing the chain which happened to tick
+  public EwmaRateMetrics(final double failureRatioThreshold,
+                         final double deviationFactor,
+                         final RateAnomalyListener listener,
+                         final Executor listenerExecutor) {
+    this(failureRatioThreshold, deviationFactor, listener, listenerExecutor, System::nanoTime);
+  }
+
+  EwmaRateMetrics(final double failureRatioThreshold,
+                  final double deviationFactor,
+                  final RateAnomalyListener listener,
+                  final Executor listenerExecutor,
+                  final LongSupplier nanoClock) {
+    if (failureRatioThreshold <= 0 || failureRatioThreshold > 1) {
+      throw new IllegalArgumentException("failureRatioThreshold must be in (0, 1], but was " + failureRatioThreshold);
+    }
+
+    if (deviationFactor <= 1) {
+      throw new IllegalArgumentException("deviationFactor must be greater than 1, but was " + deviationFactor);
+    }
+
+    this.failureRatioThreshold = failureRatioThreshold;
+    this.deviationFactor = deviationFactor;
+    this.listener = listener;
+    this.listenerExecutor = listenerExecutor;
+    this.nanoClock = nanoClock;
+    this.tickNanos = TICK_INTERVAL.toNanos();
+    this.alpha = alphaOf(WINDOW);
+    this.baselineAlpha = alphaOf(BASELINE_WINDOW);
+  }
+
+  @Override
+  public void record(final String policyName,
+                     final Outcome outcome,
+                     final Class<? extends Throwable> exceptionClass,
+                     final int handlerIndex,
+                     final long latencyNanos) {
+    final PolicyRates rates = ratesOf(policyName);
+    rates.tickIfNecessary(this.nanoClock.getAsLong());
+    rates.calls.mark();
+    if (exceptionClass != null) {
+      rates.failuresOf(exceptionClass).mark();
+    }
+  }
+
+  public double getCallRate(final String policyName) {
+    final PolicyRates rates = tickedRatesOf(policyName);
+    return rates == null ? 0 : perSecond(rates.calls.rate);
+  }
+
+  public double getFailureRate(final String policyName, final Class<? extends Throwable> exceptionClass) {
+    final FailureRates failures = failuresOf(policyName, exceptionClass);
+    return failures == null ? 0 : perSecond(failures.rate);
+  }
+
+  public double getFailureRatio(final String policyName, final Class<? extends Throwable> exceptionClass) {
+    final FailureRates failures = failuresOf(policyName, exceptionClass);
+    return failures == null ? 0 : ratio(failures.rate, this.policyRates.get(policyName).calls.rate);
+  }
+
+  public double getBaselineFailureRatio(final String policyName, final Class<? extends Throwable> exceptionClass) {
+    final FailureRates failures = failuresOf(policyName, exceptionClass);
+    return failures == null ? 0 : ratio(failures.baselineRate, this.policyRates.get(policyName).calls.baselineRate);
+  }
+
+  private FailureRates failuresOf(final String policyName, final Class<? extends Throwable> exceptionClass) {
+    final PolicyRates rates = tickedRatesOf(policyName);
+    return rates == null ? null : rates.failures.get(exceptionClass);
+  }
+
+  // rates are ticked when read as well, so that they decay while no call is made
+  private PolicyRates tickedRatesOf(final String policyName) {
+    final PolicyRates rates = this.policyRates.get(policyName);
+    if (rates != null) {
+      rates.tickIfNecessary(this.nanoClock.getAsLong());
+    }
+
+    return rates;
+  }
+
+  private PolicyRates ratesOf(final String policyName) {
+    final PolicyRates rates = this.policyRates.get(policyName);
+    if (rates != null) {
+      return rates;
+    }
+
+    return this.policyRates.computeIfAbsent(policyName, name -> new PolicyRates(name, this.nanoClock.getAsLong()));
+  }
+
+  private double perSecond(final double ratePerTick) {
+    return ratePerTick * TimeUnit.SECONDS.toNanos(1) / this.tickNanos;
+  }
+
+  private double alphaOf(final Duration window) {
+    return 1 - Math.exp(-(double) TICK_INTERVAL.toNanos() / window.toNanos());
+  }
+
+  private static double ratio(final double failureRate, final double callRate) {
+    return callRate == 0 ? 0 : Math.min(1, failureRate / callRate);
+  }
+
+  private class PolicyRates {
+    final private String policyName;
+    final private AtomicLong lastTick;
+    final private Rates calls = new Rates();
+    final private ConcurrentMap<Class<? extends Throwable>, FailureRates> failures = new ConcurrentHashMap<>();
+
+    PolicyRates(final String policyName, final long now) {
+      this.policyName = policyName;
+      this.lastTick = new AtomicLong(now);
+    }
+
+    FailureRates failuresOf(final Class<? extends Throwable> exceptionClass) {
+      final FailureRates failureRates = this.failures.get(exceptionClass);
+      if (failureRates != null) {
+        return failureRates;
+      }
+
+      // a class appearing once calls are measured had no failures before, its baseline starts at zero rather than at
+      // its first interval, which may already be the spike to warn about
+      return this.failures.computeIfAbsent(exceptionClass, ignored -> new FailureRates(this.calls.initialized));
+    }
+
+    // the thread winning the CAS folds the elapsed intervals in, every other thread only marks
+    void tickIfNecessary(final long now) {
+      final long lastTick = this.lastTick.get();
+      final long age = now - lastTick;
+      if (age < tickNanos || !this.lastTick.compareAndSet(lastTick, now - age % tickNanos)) {
+        return;
+      }
+
+      final long ticks = age / tickNanos;
+      this.calls.tick(ticks);
+      for (Map.Entry<Class<? extends Throwable>, FailureRates> failure : this.failures.entrySet()) {
+        failure.getValue().tick(ticks);
+        evaluate(failure.getKey(), failure.getValue());
+      }
+    }
+
+    private void evaluate(final Class<? extends Throwable> exceptionClass, final FailureRates failureRates) {
+      final double failureRatio = ratio(failureRates.rate, this.calls.rate);
+      final double baselineFailureRatio = ratio(failureRates.baselineRate, this.calls.baselineRate);
+
+      final boolean aboveThreshold = failureRatio >= failureRatioThreshold;
+      if (aboveThreshold && !failureRates.aboveThreshold) {
+        notifyListener(exceptionClass, RateAnomalyListener.Anomaly.THRESHOLD_CROSSED, failureRatio, baselineFailureRatio);
+      }
+      failureRates.aboveThreshold = aboveThreshold;
+
+      final boolean deviating = failureRatio > baselineFailureRatio * deviationFactor
+              && failureRatio - baselineFailureRatio >= MINIMUM_DEVIATION;
+      if (deviating && !failureRates.deviating) {
+        notifyListener(exceptionClass, RateAnomalyListener.Anomaly.DEVIATION, failureRatio, baselineFailureRatio);
+      }
+      failureRates.deviating = deviating;
+    }
+
+    private void notifyListener(final Class<? extends Throwable> exceptionClass,
+                                final RateAnomalyListener.Anomaly anomaly,
+                                final double failureRatio,
+                                final double baselineFailureRatio) {
+      try {
+        listenerExecutor.execute(() -> reportAnomaly(
+                this.policyName, exceptionClass, anomaly, failureRatio, baselineFailureRatio));
+      } catch (RejectedExecutionException exception) {
+        // anomaly is not reported, rates keep being measured
+      }
+    }
+  }
+
+  private void reportAnomaly(final String policyName,
+                             final Class<? extends Throwable> exceptionClass,
+                             final RateAnomalyListener.Anomaly anomaly,
+                             final double failureRatio,
+                             final double baselineFailureRatio) {
+    try {
+      this.listener.onAnomaly(policyName, exceptionClass, anomaly, failureRatio, baselineFailureRatio);
+    } catch (Throwable throwable) {
+      // a failing listener must not stop later notifications
+    }
+  }
+
+  private class Rates {
+    final private LongAdder uncounted = new LongAdder();
+    private volatile boolean initialized;
+    volatile double rate;
+    volatile double baselineRate;
+
+    Rates() {
+      this(false);
+    }
+
+    // initialized rates start at zero, otherwise both are set to the count of the first interval
+    Rates(final boolean initialized) {
+      this.initialized = initialized;
+    }
+
+    void mark() {
+      this.uncounted.increment();
+    }
+
+    void tick(final long ticks) {
+      final double count = this.uncounted.sumThenReset();
+      if (this.initialized) {
+        this.rate += alpha * (count - this.rate);
+        this.baselineRate += baselineAlpha * (count - this.baselineRate);
+      } else {
+        this.rate = count;
+        this.baselineRate = count;
+        this.initialized = true;
+      }
+
+      if (ticks > 1) {
+        this.rate *= Math.pow(1 - alpha, ticks - 1);
+        this.baselineRate *= Math.pow(1 - baselineAlpha, ticks - 1);
+      }
+    }
+  }
+
+  private class FailureRates extends Rates {
+    private volatile boolean aboveThreshold;
+    private volatile boolean deviating;
+
+    FailureRates(final boolean initialized) {
+      super(initialized);
+    }
+  }
+}
@@ -0,0 +1,6 @@
+package com.thenakliman.tries;
+
+@FunctionalInterface
+public interface ExceptionReporter {
+  void report(final Throwable exception, final long suppressedCount);
+}
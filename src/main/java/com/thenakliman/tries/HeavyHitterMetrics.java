@@ -0,0 +1,334 @@
+package com.thenakliman.tries;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+public class HeavyHitterMetrics implements TryMetrics {
+  final private static int BUCKETS = 6;
+  final private static int MAXIMUM_KEYS_PER_COUNTER = 16;
+  final private static int STRIPES =
+          Math.min(16, Math.max(1, Integer.highestOneBit((Runtime.getRuntime().availableProcessors() - 1) << 1)));
+
+  final private int capacity;
+  final private long bucketNanos;
+  final private LongSupplier nanoClock;
+  // summaries per stripe and time bucket, a thread records into its own stripe which are merged when read
+  final private StreamSummary[][] summaries = new StreamSummary[STRIPES][BUCKETS];
+  // keys are reused so that recording allocates nothing, up to a bound keeping memory fixed for unbounded pairs
+  final private ConcurrentHashMap<String, ConcurrentHashMap<Class<? extends Throwable>, Key>> keys =
+          new ConcurrentHashMap<>();
+  final private AtomicInteger keyCount = new AtomicInteger();
+  final private int maximumKeys;
+
+  public HeavyHitterMetrics(final int capacity, final Duration window) {
+    this(capacity, window, System::nanoTime);
+  }
+
+  HeavyHitterMetrics(final int capacity, final Duration window, final LongSupplier nanoClock) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive, but was " + capacity);
+    }
+
+    if (window.toNanos() < BUCKETS) {
+      throw new IllegalArgumentException("window is too short, it was " + window);
+    }
+
+    this.capacity = capacity;
+    this.maximumKeys = capacity * MAXIMUM_KEYS_PER_COUNTER;
+    this.bucketNanos = window.toNanos() / BUCKETS;
+    this.nanoClock = nanoClock;
+    for (int stripe = 0; stripe < STRIPES; stripe++) {
+      for (int bucket = 0; bucket < BUCKETS; bucket++) {
+        this.summaries[stripe][bucket] = new StreamSummary(capacity);
+      }
+    }
+  }
+
+  @Override
+  public void record(final String policyName,
+                     final Outcome outcome,
+                     final Class<? extends Throwable> exceptionClass,
+                     final int handlerIndex,
+                     final long latencyNanos) {
+    if (exceptionClass == null) {
+      return;
+    }
+
+    final Key key = keyOf(policyName, exceptionClass);
+    final long epoch = Math.floorDiv(this.nanoClock.getAsLong(), this.bucketNanos);
+    final StreamSummary summary = this.summaries[stripe()][(int) Math.floorMod(epoch, (long) BUCKETS)];
+    synchronized (summary) {
+      if (summary.epoch != epoch) {
+        summary.clear(epoch);
+      }
+      summary.offer(key);
+    }
+  }
+
+  // merged counts of every stripe, no more pairs than the capacity of a summary
+  public List<HeavyHitter> getTopK(final int k) {
+    final long currentEpoch = Math.floorDiv(this.nanoClock.getAsLong(), this.bucketNanos);
+    final Map<Key, HeavyHitter> merged = new HashMap<>();
+    for (StreamSummary[] stripe : this.summaries) {
+      for (StreamSummary summary : stripe) {
+        synchronized (summary) {
+          if (currentEpoch - summary.epoch >= BUCKETS) {
+            continue;
+          }
+
+          summary.counters.forEach((key, counter) -> merged.merge(
+                  key,
+                  new HeavyHitter(key.policyName, key.exceptionClass, counter.bucket.count, counter.error),
+                  HeavyHitter::add));
+        }
+      }
+    }
+
+    final List<HeavyHitter> heavyHitters = new ArrayList<>(merged.values());
+    heavyHitters.sort((first, second) -> Long.compare(second.count, first.count));
+    return heavyHitters.subList(0, Math.min(Math.min(k, this.capacity), heavyHitters.size()));
+  }
+
+  public int getCapacity() {
+    return this.capacity;
+  }
+
+  private Key keyOf(final String policyName, final Class<? extends Throwable> exceptionClass) {
+    final ConcurrentHashMap<Class<? extends Throwable>, Key> policyKeys = this.keys.get(policyName);
+    final Key key = policyKeys == null ? null : policyKeys.get(exceptionClass);
+    if (key != null) {
+      return key;
+    }
+
+    if (this.keyCount.get() >= this.maximumKeys) {
+      return new Key(policyName, exceptionClass);
+    }
+
+    return this.keys.computeIfAbsent(policyName, name -> new ConcurrentHashMap<>())
+            .computeIfAbsent(exceptionClass, ignored -> {
+              this.keyCount.incrementAndGet();
+              return new Key(policyName, exceptionClass);
+            });
+  }
+
+  private static int stripe() {
+    final long id = Thread.currentThread().getId();
+    final int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+    return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+  }
+
+  public static class HeavyHitter {
+    final private String policyName;
+    final private Class<? extends Throwable> exceptionClass;
+    final private long count;
+    final private long error;
+
+    HeavyHitter(final String policyName,
+                final Class<? extends Throwable> exceptionClass,
+                final long count,
+                final long error) {
+      this.policyName = policyName;
+      this.exceptionClass = exceptionClass;
+      this.count = count;
+      this.error = error;
+    }
+
+    public String getPolicyName() {
+      return this.policyName;
+    }
+
+    public Class<? extends Throwable> getExceptionClass() {
+      return this.exceptionClass;
+    }
+
+    // an upper bound, the real count is at least count - error
+    public long getCount() {
+      return this.count;
+    }
+
+    public long getError() {
+      return this.error;
+    }
+
+    HeavyHitter add(final HeavyHitter other) {
+      return new HeavyHitter(this.policyName, this.exceptionClass, this.count + other.count, this.error + other.error);
+    }
+  }
+
+  // Stream-Summary of Space-Saving, counters are kept in buckets of equal count ordered by count, so that counting
+  // and replacing the smallest counter when a new key arrives at capacity take constant time
+  private static class StreamSummary {
+    final private int capacity;
+    final private Map<Key, Counter> counters;
+    private CountBucket smallest;
+    private long epoch = Long.MIN_VALUE;
+
+    StreamSummary(final int capacity) {
+      this.capacity = capacity;
+      this.counters = new HashMap<>(capacity * 2);
+    }
+
+    void clear(final long epoch) {
+      this.counters.clear();
+      this.smallest = null;
+      this.epoch = epoch;
+    }
+
+    void offer(final Key key) {
+      final Counter counter = this.counters.get(key);
+      if (counter != null) {
+        increment(counter);
+        return;
+      }
+
+      if (this.counters.size() < this.capacity) {
+        final Counter newCounter = new Counter(key);
+        this.counters.put(key, newCounter);
+        attachFirst(newCounter);
+        return;
+      }
+
+      final Counter minimum = this.smallest.first;
+      this.counters.remove(minimum.key);
+      minimum.key = key;
+      minimum.error = minimum.bucket.count;
+      this.counters.put(key, minimum);
+      increment(minimum);
+    }
+
+    private void attachFirst(final Counter counter) {
+      if (this.smallest == null || this.smallest.count != 1) {
+        final CountBucket bucket = new CountBucket(1);
+        bucket.next = this.smallest;
+        if (this.smallest != null) {
+          this.smallest.previous = bucket;
+        }
+        this.smallest = bucket;
+      }
+
+      this.smallest.add(counter);
+    }
+
+    private void increment(final Counter counter) {
+      final CountBucket bucket = counter.bucket;
+      final long count = bucket.count + 1;
+      final CountBucket next = bucket.next;
+      if (bucket.first == counter && counter.next == null && (next == null || next.count != count)) {
+        // only counter of its bucket, the bucket moves up with it
+        bucket.count = count;
+        return;
+      }
+
+      bucket.remove(counter);
+      final CountBucket target;
+      if (next != null && next.count == count) {
+        target = next;
+      } else {
+        target = new CountBucket(count);
+        target.previous = bucket;
+        target.next = next;
+        if (next != null) {
+          next.previous = target;
+        }
+        bucket.next = target;
+      }
+      target.add(counter);
+
+      if (bucket.first == null) {
+        unlink(bucket);
+      }
+    }
+
+    private void unlink(final CountBucket bucket) {
+      if (bucket.previous == null) {
+        this.smallest = bucket.next;
+      } else {
+        bucket.previous.next = bucket.next;
+      }
+
+      if (bucket.next != null) {
+        bucket.next.previous = bucket.previous;
+      }
+    }
+  }
+
+  private static class CountBucket {
+    private long count;
+    private Counter first;
+    private CountBucket previous;
+    private CountBucket next;
+
+    CountBucket(final long count) {
+      this.count = count;
+    }
+
+    void add(final Counter counter) {
+      counter.bucket = this;
+      counter.previous = null;
+      counter.next = this.first;
+      if (this.first != null) {
+        this.first.previous = counter;
+      }
+      this.first = counter;
+    }
+
+    void remove(final Counter counter) {
+      if (counter.previous == null) {
+        this.first = counter.next;
+      } else {
+        counter.previous.next = counter.next;
+      }
+
+      if (counter.next != null) {
+        counter.next.previous = counter.previous;
+      }
+    }
+  }
+
+  private static class Counter {
+    private Key key;
+    private long error;
+    private CountBucket bucket;
+    private Counter previous;
+    private Counter next;
+
+    Counter(final Key key) {
+      this.key = key;
+    }
+  }
+
+  private static class Key {
+    final private String policyName;
+    final private Class<? extends Throwable> exceptionClass;
+
+    Key(final String policyName, final Class<? extends Throwable> exceptionClass) {
+      this.policyName = policyName;
+      this.exceptionClass = exceptionClass;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if (this == other) {
+        return true;
+      }
+
+      if (!(other instanceof Key)) {
+        return false;
+      }
+
+      final Key key = (Key) other;
+      return this.policyName.equals(key.policyName) && this.exceptionClass == key.exceptionClass;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * this.policyName.hashCode() + this.exceptionClass.hashCode();
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package com.thenakliman.tries;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+public class LastSuccessfulCache<K, T> {
+  final private static int MAXIMUM_SEGMENTS = 16;
+
+  final private Segment<K, T>[] segments;
+  final private LongSupplier nanoClock;
+
+  public LastSuccessfulCache(final int maximumSize) {
+    this(maximumSize, System::nanoTime);
+  }
+
+  @SuppressWarnings("unchecked")
+  LastSuccessfulCache(final int maximumSize, final LongSupplier nanoClock) {
+    if (maximumSize < 1) {
+      throw new IllegalArgumentException("maximumSize must be positive, but was " + maximumSize);
+    }
+
+    // power of two segments, no more than entries, sharing the maximum size so that they hold exactly maximumSize
+    final int segmentCount = Integer.highestOneBit(Math.min(maximumSize, MAXIMUM_SEGMENTS));
+    this.segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      final int segmentSize = maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0);
+      this.segments[i] = new Segment<>(segmentSize);
+    }
+
+    this.nanoClock = nanoClock;
+  }
+
+  void record(final K key, final T value) {
+    final Segment<K, T> segment = segmentFor(key);
+    final Entry<T> entry = new Entry<>(value, this.nanoClock.getAsLong());
+    synchronized (segment) {
+      segment.put(key, entry);
+    }
+  }
+
+  Entry<T> getIfFresh(final K key, final long maxStalenessNanos) {
+    final Entry<T> entry = get(key);
+    if (entry == null || this.nanoClock.getAsLong() - entry.recordedAt > maxStalenessNanos) {
+      return null;
+    }
+
+    return entry;
+  }
+
+  Entry<T> get(final K key) {
+    final Segment<K, T> segment = segmentFor(key);
+    synchronized (segment) {
+      return segment.get(key);
+    }
+  }
+
+  public int size() {
+    int size = 0;
+    for (Segment<K, T> segment : this.segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+
+    return size;
+  }
+
+  private Segment<K, T> segmentFor(final K key) {
+    final int hash = key == null ? 0 : key.hashCode();
+    return this.segments[(hash ^ (hash >>> 16)) & (this.segments.length - 1)];
+  }
+
+  static class Entry<T> {
+    final private T value;
+    final private long recordedAt;
+
+    Entry(final T value, final long recordedAt) {
+      this.value = value;
+      this.recordedAt = recordedAt;
+    }
+
+    T getValue() {
+      return this.value;
+    }
+  }
+
+  private static class Segment<K, T> extends LinkedHashMap<K, Entry<T>> {
+    final private int maximumSize;
+
+    Segment(final int maximumSize) {
+      super(16, 0.75f, true);
+      this.maximumSize = maximumSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<K, LastSuccessfulCache.Entry<T>> eldest) {
+      return size() > this.maximumSize;
+    }
+  }
+}
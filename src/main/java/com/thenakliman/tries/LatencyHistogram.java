@@ -0,0 +1,137 @@
+package com.thenakliman.tries;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+  // 2^4 linear sub buckets per power of two, every value is recorded with at most 1/16 relative error
+  final private static int SUB_BUCKET_BITS = 4;
+  final private static int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  final private static int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  final private AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+  public void record(final long latencyNanos) {
+    this.counts.incrementAndGet(indexOf(Math.max(0, latencyNanos)));
+  }
+
+  public Snapshot snapshot() {
+    final long[] snapshot = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = this.counts.get(i);
+    }
+
+    return new Snapshot(snapshot);
+  }
+
+  public Snapshot snapshotAndReset() {
+    final long[] snapshot = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = this.counts.getAndSet(i, 0);
+    }
+
+    return new Snapshot(snapshot);
+  }
+
+  static int indexOf(final long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+
+    final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    final int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+    return (shift + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long lowestValueAt(final int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+
+    final int shift = index / SUB_BUCKETS - 1;
+    return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+  }
+
+  static long highestValueAt(final int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+
+    final int shift = index / SUB_BUCKETS - 1;
+    return lowestValueAt(index) + (1L << shift) - 1;
+  }
+
+  public static class Snapshot {
+    final private long[] counts;
+    final private long totalCount;
+
+    private Snapshot(final long[] counts) {
+      long totalCount = 0;
+      for (long count : counts) {
+        totalCount += count;
+      }
+
+      this.counts = counts;
+      this.totalCount = totalCount;
+    }
+
+    public long getCount() {
+      return this.totalCount;
+    }
+
+    public long getPercentile(final double percentile) {
+      if (percentile < 0 || percentile > 100) {
+        throw new IllegalArgumentException("percentile must be between 0 and 100, but was " + percentile);
+      }
+
+      if (this.totalCount == 0) {
+        return 0;
+      }
+
+      final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * this.totalCount));
+      long seen = 0;
+      for (int i = 0; i < this.counts.length; i++) {
+        seen += this.counts[i];
+        if (seen >= rank) {
+          return highestValueAt(i);
+        }
+      }
+
+      return getMax();
+    }
+
+    public long getMax() {
+      for (int i = this.counts.length - 1; i >= 0; i--) {
+        if (this.counts[i] != 0) {
+          return highestValueAt(i);
+        }
+      }
+
+      return 0;
+    }
+
+    public long getMin() {
+      for (int i = 0; i < this.counts.length; i++) {
+        if (this.counts[i] != 0) {
+          return lowestValueAt(i);
+        }
+      }
+
+      return 0;
+    }
+
+    public double getMean() {
+      if (this.totalCount == 0) {
+        return 0;
+      }
+
+      double total = 0;
+      for (int i = 0; i < this.counts.length; i++) {
+        if (this.counts[i] != 0) {
+          total += (double) this.counts[i] * (lowestValueAt(i) + highestValueAt(i)) / 2;
+        }
+      }
+
+      return total / this.totalCount;
+    }
+  }
+}
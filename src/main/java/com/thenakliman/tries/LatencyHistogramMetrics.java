@@ -0,0 +1,64 @@
+package com.thenakliman.tries;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class LatencyHistogramMetrics implements TryMetrics {
+  final private ConcurrentMap<String, PolicyHistograms> histograms = new ConcurrentHashMap<>();
+
+  @Override
+  public void record(final String policyName,
+                     final Outcome outcome,
+                     final Class<? extends Throwable> exceptionClass,
+                     final int handlerIndex,
+                     final long latencyNanos) {
+    histogramsOf(policyName).total.record(latencyNanos);
+  }
+
+  @Override
+  public void recordPhase(final String policyName, final Phase phase, final long latencyNanos) {
+    histogramsOf(policyName).phases[phase.ordinal()].record(latencyNanos);
+  }
+
+  public LatencyHistogram getSupplierHistogram(final String policyName) {
+    return getPhaseHistogram(policyName, Phase.SUPPLIER);
+  }
+
+  public LatencyHistogram getHandlerHistogram(final String policyName) {
+    return getPhaseHistogram(policyName, Phase.HANDLER);
+  }
+
+  public LatencyHistogram getPhaseHistogram(final String policyName, final Phase phase) {
+    return histogramsOf(policyName).phases[phase.ordinal()];
+  }
+
+  public LatencyHistogram getTotalHistogram(final String policyName) {
+    return histogramsOf(policyName).total;
+  }
+
+  public Set<String> getPolicyNames() {
+    return Collections.unmodifiableSet(this.histograms.keySet());
+  }
+
+  private PolicyHistograms histogramsOf(final String policyName) {
+    final PolicyHistograms policyHistograms = this.histograms.get(policyName);
+    if (policyHistograms != null) {
+      return policyHistograms;
+    }
+
+    return this.histograms.computeIfAbsent(policyName, name -> new PolicyHistograms());
+  }
+
+  private static class PolicyHistograms {
+    final private LatencyHistogram[] phases = new LatencyHistogram[Phase.values().length];
+    final private LatencyHistogram total = new LatencyHistogram();
+
+    PolicyHistograms() {
+      for (int i = 0; i < this.phases.length; i++) {
+        this.phases[i] = new LatencyHistogram();
+      }
+    }
+  }
+}
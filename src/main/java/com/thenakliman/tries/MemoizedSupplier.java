@@ -0,0 +1,119 @@
+package com.thenakliman.tries;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+class MemoizedSupplier<T> implements Supplier<T> {
+  final private static int REFRESH_AHEAD_DIVISOR = 10;
+  // a failing refresh is retried at most this many times before the value expires, so a degraded dependency is not
+  // called again on every get
+  final private static int REFRESH_ATTEMPTS = 5;
+
+  final private Supplier<T> valueProvider;
+  final private long ttlNanos;
+  final private long refreshAfterNanos;
+  final private long refreshRetryNanos;
+  final private Executor refreshExecutor;
+  final private LongSupplier nanoClock;
+  final private AtomicBoolean refreshing = new AtomicBoolean();
+  private volatile Value<T> memoized;
+  private volatile boolean refreshFailed;
+  private volatile long refreshFailedAt;
+
+  MemoizedSupplier(final Supplier<T> valueProvider,
+                   final long ttlNanos,
+                   final Executor refreshExecutor,
+                   final LongSupplier nanoClock) {
+    if (ttlNanos <= 0) {
+      throw new IllegalArgumentException("ttl must be positive, but was " + ttlNanos + "ns");
+    }
+
+    this.valueProvider = valueProvider;
+    this.ttlNanos = ttlNanos;
+    this.refreshAfterNanos = ttlNanos - ttlNanos / REFRESH_AHEAD_DIVISOR;
+    this.refreshRetryNanos = (ttlNanos - this.refreshAfterNanos) / REFRESH_ATTEMPTS;
+    this.refreshExecutor = refreshExecutor;
+    this.nanoClock = nanoClock;
+  }
+
+  @Override
+  public T get() {
+    return get(Policy.NONE, (refreshException) -> {
+    });
+  }
+
+  // loads and refreshes go through the policy like any other supplier call, serving the memoized value does not
+  T get(final Policy policy, final Consumer<Throwable> onRefreshFailure) {
+    final Value<T> value = this.memoized;
+    if (value == null) {
+      return load(policy);
+    }
+
+    final long now = this.nanoClock.getAsLong();
+    final long age = now - value.loadedAt;
+    if (age >= this.ttlNanos) {
+      return load(policy);
+    }
+
+    if (age >= this.refreshAfterNanos && !isBackingOff(now)) {
+      refreshAsync(policy, onRefreshFailure);
+    }
+
+    return value.value;
+  }
+
+  private synchronized T load(final Policy policy) {
+    final Value<T> value = this.memoized;
+    if (value != null && this.nanoClock.getAsLong() - value.loadedAt < this.ttlNanos) {
+      return value.value;
+    }
+
+    final T loadedValue = policy.get(this.valueProvider);
+    this.memoized = new Value<>(loadedValue, this.nanoClock.getAsLong());
+    return loadedValue;
+  }
+
+  private boolean isBackingOff(final long now) {
+    return this.refreshFailed && now - this.refreshFailedAt < this.refreshRetryNanos;
+  }
+
+  private void refreshAsync(final Policy policy, final Consumer<Throwable> onRefreshFailure) {
+    if (!this.refreshing.compareAndSet(false, true)) {
+      return;
+    }
+
+    try {
+      this.refreshExecutor.execute(() -> refresh(policy, onRefreshFailure));
+    } catch (RejectedExecutionException exception) {
+      this.refreshing.set(false);
+    }
+  }
+
+  private void refresh(final Policy policy, final Consumer<Throwable> onRefreshFailure) {
+    try {
+      final T refreshedValue = policy.get(this.valueProvider);
+      this.memoized = new Value<>(refreshedValue, this.nanoClock.getAsLong());
+      this.refreshFailed = false;
+    } catch (Throwable refreshException) {
+      this.refreshFailedAt = this.nanoClock.getAsLong();
+      this.refreshFailed = true;
+      onRefreshFailure.accept(refreshException);
+    } finally {
+      this.refreshing.set(false);
+    }
+  }
+
+  private static class Value<T> {
+    final private T value;
+    final private long loadedAt;
+
+    Value(final T value, final long loadedAt) {
+      this.value = value;
+      this.loadedAt = loadedAt;
+    }
+  }
+}
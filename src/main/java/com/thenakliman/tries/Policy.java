@@ -0,0 +1,399 @@
+package com.thenakliman.tries;
+
+import com.thenakliman.tries.internal.ExecutionEvent;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static com.thenakliman.tries.SneakyThrower.sneakyThrow;
+
+public class Policy {
+  final private static long NO_TIMEOUT = 0;
+  final private static int NO_PHASE_TIMING = 0;
+  final private static ChainStamp NO_CHAIN = null;
+  final static Policy NONE = new Policy("", null, NO_TIMEOUT, 0, null, NO_PHASE_TIMING, null, null, NO_CHAIN);
+
+  final private String name;
+  final private AdaptiveConcurrencyLimiter concurrencyLimiter;
+  final private long timeoutNanos;
+  final private long minimumBudgetNanos;
+  final private TryMetrics metrics;
+  final private int phaseSampleEvery;
+  final private AllocationMetrics allocationMetrics;
+  final private ResourceCloseFailures resourceCloseFailures;
+  final private ChainStamp chain;
+  final private boolean passThrough;
+
+  private Policy(final String name,
+                 final AdaptiveConcurrencyLimiter concurrencyLimiter,
+                 final long timeoutNanos,
+                 final long minimumBudgetNanos,
+                 final TryMetrics metrics,
+                 final int phaseSampleEvery,
+                 final AllocationMetrics allocationMetrics,
+                 final ResourceCloseFailures resourceCloseFailures,
+                 final ChainStamp chain) {
+    this.name = name;
+    this.concurrencyLimiter = concurrencyLimiter;
+    this.timeoutNanos = timeoutNanos;
+    this.minimumBudgetNanos = minimumBudgetNanos;
+    this.metrics = metrics;
+    this.phaseSampleEvery = phaseSampleEvery;
+    this.allocationMetrics = allocationMetrics;
+    this.resourceCloseFailures = resourceCloseFailures;
+    this.chain = chain;
+    this.passThrough = concurrencyLimiter == null
+            && timeoutNanos == NO_TIMEOUT
+            && metrics == null
+            && allocationMetrics == null;
+  }
+
+  public static Policy named(final String name) {
+    if (name == null || name.isEmpty()) {
+      throw new IllegalArgumentException("policy name must not be empty");
+    }
+
+    return new Policy(name, null, NO_TIMEOUT, 0, null, NO_PHASE_TIMING, null, null, NO_CHAIN);
+  }
+
+  public Policy withConcurrencyLimiter(final AdaptiveConcurrencyLimiter concurrencyLimiter) {
+    return new Policy(
+            this.name,
+            concurrencyLimiter,
+            this.timeoutNanos,
+            this.minimumBudgetNanos,
+            this.metrics,
+            this.phaseSampleEvery,
+            this.allocationMetrics,
+            this.resourceCloseFailures,
+            NO_CHAIN);
+  }
+
+  public Policy withTimeout(final Duration timeout) {
+    if (timeout.isNegative() || timeout.isZero()) {
+      throw new IllegalArgumentException("timeout must be positive, but was " + timeout);
+    }
+
+    return new Policy(
+            this.name,
+            this.concurrencyLimiter,
+            timeout.toNanos(),
+            this.minimumBudgetNanos,
+            this.metrics,
+            this.phaseSampleEvery,
+            this.allocationMetrics,
+            this.resourceCloseFailures,
+            NO_CHAIN);
+  }
+
+  public Policy withMinimumBudget(final Duration minimumBudget) {
+    return new Policy(
+            this.name,
+            this.concurrencyLimiter,
+            this.timeoutNanos,
+            minimumBudget.toNanos(),
+            this.metrics,
+            this.phaseSampleEvery,
+            this.allocationMetrics,
+            this.resourceCloseFailures,
+            NO_CHAIN);
+  }
+
+  public Policy withMetrics(final TryMetrics metrics) {
+    final TryMetrics allMetrics = this.metrics == null ? metrics : new CompositeMetrics(this.metrics, metrics);
+    return new Policy(
+            this.name,
+            this.concurrencyLimiter,
+            this.timeoutNanos,
+            this.minimumBudgetNanos,
+            allMetrics,
+            this.phaseSampleEvery,
+            this.allocationMetrics,
+            this.resourceCloseFailures,
+            NO_CHAIN);
+  }
+
+  // close, elseCall and finally callables of 1 in sampleEvery executions are timed, it takes effect with metrics only
+  public Policy withPhaseTiming(final int sampleEvery) {
+    if (sampleEvery < 1) {
+      throw new IllegalArgumentException("sampleEvery must be positive, but was " + sampleEvery);
+    }
+
+    return new Policy(
+            this.name,
+            this.concurrencyLimiter,
+            this.timeoutNanos,
+            this.minimumBudgetNanos,
+            this.metrics,
+            sampleEvery,
+            this.allocationMetrics,
+            this.resourceCloseFailures,
+            NO_CHAIN);
+  }
+
+  // diagnostic mode, allocated bytes of the thread are read around every phase of every execution
+  public Policy withAllocationAccounting(final AllocationMetrics allocationMetrics) {
+    return new Policy(
+            this.name,
+            this.concurrencyLimiter,
+            this.timeoutNanos,
+            this.minimumBudgetNanos,
+            this.metrics,
+            this.phaseSampleEvery,
+            allocationMetrics,
+            this.resourceCloseFailures,
+            NO_CHAIN);
+  }
+
+  // failures raised while closing resources of the chains of this policy are counted in resourceCloseFailures
+  public Policy withResourceCloseFailures(final ResourceCloseFailures resourceCloseFailures) {
+    return new Policy(
+            this.name,
+            this.concurrencyLimiter,
+            this.timeoutNanos,
+            this.minimumBudgetNanos,
+            this.metrics,
+            this.phaseSampleEvery,
+            this.allocationMetrics,
+            resourceCloseFailures,
+            NO_CHAIN);
+  }
+
+  public String getName() {
+    return this.name;
+  }
+
+  AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+    return this.concurrencyLimiter;
+  }
+
+  Policy startChain() {
+    if (this.allocationMetrics == null) {
+      return this;
+    }
+
+    return new Policy(
+            this.name,
+            this.concurrencyLimiter,
+            this.timeoutNanos,
+            this.minimumBudgetNanos,
+            this.metrics,
+            this.phaseSampleEvery,
+            this.allocationMetrics,
+            this.resourceCloseFailures,
+            new ChainStamp(AllocationMetrics.currentThreadAllocatedBytes()));
+  }
+
+  long allocatedBytes() {
+    return this.allocationMetrics == null ? 0 : AllocationMetrics.currentThreadAllocatedBytes();
+  }
+
+  long startExecution() {
+    if (this.allocationMetrics == null) {
+      return 0;
+    }
+
+    final long allocatedBytes = AllocationMetrics.currentThreadAllocatedBytes();
+    if (this.chain != NO_CHAIN && this.chain.isFirstExecutionOnBuildingThread()) {
+      this.allocationMetrics.record(this.name, AllocationMetrics.Phase.CHAIN, this.chain.allocatedBytes, allocatedBytes);
+    }
+
+    return allocatedBytes;
+  }
+
+  void recordAllocation(final AllocationMetrics.Phase phase, final long allocatedBytes) {
+    if (this.allocationMetrics != null) {
+      this.allocationMetrics.record(this.name, phase, allocatedBytes, AllocationMetrics.currentThreadAllocatedBytes());
+    }
+  }
+
+  void recordCloseFailure(final AutoCloseable resource, final Throwable failure) {
+    if (this.resourceCloseFailures != null) {
+      this.resourceCloseFailures.record(resource, failure);
+    } else {
+      ResourceCloseFailures.unowned().record(resource, failure);
+    }
+  }
+
+  long startTime() {
+    return this.metrics == null ? 0 : System.nanoTime();
+  }
+
+  boolean samplePhases() {
+    return this.phaseSampleEvery != NO_PHASE_TIMING
+            && this.metrics != null
+            && (this.phaseSampleEvery == 1 || ThreadLocalRandom.current().nextInt(this.phaseSampleEvery) == 0);
+  }
+
+  long startPhase(final boolean sampled) {
+    return sampled ? System.nanoTime() : 0;
+  }
+
+  void endPhase(final boolean sampled, final TryMetrics.Phase phase, final long startTime) {
+    if (sampled) {
+      this.metrics.recordPhase(this.name, phase, System.nanoTime() - startTime);
+    }
+  }
+
+  void recordPhase(final TryMetrics.Phase phase, final long startTime) {
+    if (this.metrics != null) {
+      this.metrics.recordPhase(this.name, phase, System.nanoTime() - startTime);
+    }
+  }
+
+  void recordSuccess(final long startTime, final ExecutionEvent event) {
+    if (this.metrics != null) {
+      this.metrics.record(this.name, TryMetrics.Outcome.SUCCESS, null, TryMetrics.NO_HANDLER, System.nanoTime() - startTime);
+    }
+
+    if (event != null) {
+      event.commit(this.name, TryMetrics.Outcome.SUCCESS, null);
+    }
+  }
+
+  void recordHandled(final Throwable raisedException,
+                     final int handlerIndex,
+                     final long startTime,
+                     final ExecutionEvent event) {
+    if (this.metrics != null) {
+      this.metrics.record(
+              this.name,
+              TryMetrics.Outcome.HANDLED,
+              raisedException.getClass(),
+              handlerIndex,
+              System.nanoTime() - startTime);
+    }
+
+    if (event != null) {
+      event.commit(this.name, TryMetrics.Outcome.HANDLED, raisedException.getClass());
+    }
+  }
+
+  void recordRethrown(final Throwable raisedException, final long startTime, final ExecutionEvent event) {
+    if (this.metrics != null) {
+      this.metrics.record(
+              this.name,
+              TryMetrics.Outcome.RETHROWN,
+              raisedException.getClass(),
+              TryMetrics.NO_HANDLER,
+              System.nanoTime() - startTime);
+    }
+
+    if (event != null) {
+      event.commit(this.name, TryMetrics.Outcome.RETHROWN, raisedException.getClass());
+    }
+  }
+
+  <T> T get(final Supplier<T> valueProvider) {
+    if (this.passThrough && !Deadline.isInUse()) {
+      return valueProvider.get();
+    }
+
+    final long previousDeadline = enter();
+    final long allocatedBytes = allocatedBytes();
+    final long startTime = System.nanoTime();
+    try {
+      return valueProvider.get();
+    } finally {
+      exit(previousDeadline, startTime);
+      recordAllocation(AllocationMetrics.Phase.SUPPLIER, allocatedBytes);
+    }
+  }
+
+  void call(final Callable callable) throws Exception {
+    if (this.passThrough && !Deadline.isInUse()) {
+      callable.call();
+      return;
+    }
+
+    final long previousDeadline = enter();
+    final long allocatedBytes = allocatedBytes();
+    final long startTime = System.nanoTime();
+    try {
+      callable.call();
+    } finally {
+      exit(previousDeadline, startTime);
+      recordAllocation(AllocationMetrics.Phase.SUPPLIER, allocatedBytes);
+    }
+  }
+
+  private long enter() {
+    if (this.timeoutNanos == NO_TIMEOUT && !Deadline.isInUse()) {
+      acquire();
+      return Deadline.NONE;
+    }
+
+    final Deadline deadline = Deadline.current();
+    final long previousDeadline = deadline.getNanos();
+    final long now = System.nanoTime();
+    if (previousDeadline != Deadline.NONE && previousDeadline - now <= this.minimumBudgetNanos) {
+      throw sneakyThrow(new DeadlineExceededException(this.name, previousDeadline - now));
+    }
+
+    acquire();
+    if (this.timeoutNanos != NO_TIMEOUT) {
+      final long newDeadline = now + this.timeoutNanos;
+      if (previousDeadline == Deadline.NONE || newDeadline - previousDeadline < 0) {
+        deadline.setNanos(newDeadline);
+      }
+    }
+
+    return previousDeadline;
+  }
+
+  // a call waiting for the execution of another thread gives up at the deadline in effect or at its own timeout
+  long awaitDeadlineNanos() {
+    final long previousDeadline = Deadline.isInUse() ? Deadline.current().getNanos() : Deadline.NONE;
+    if (this.timeoutNanos == NO_TIMEOUT) {
+      return previousDeadline;
+    }
+
+    final long newDeadline = System.nanoTime() + this.timeoutNanos;
+    return previousDeadline == Deadline.NONE || newDeadline - previousDeadline < 0 ? newDeadline : previousDeadline;
+  }
+
+  private void acquire() {
+    if (this.concurrencyLimiter != null && !this.concurrencyLimiter.tryAcquire()) {
+      throw new ConcurrencyLimitExceededException(this.name, this.concurrencyLimiter.getLimit());
+    }
+  }
+
+  private void exit(final long previousDeadline, final long startTime) {
+    if (this.timeoutNanos != NO_TIMEOUT) {
+      Deadline.current().setNanos(previousDeadline);
+    }
+
+    if (this.concurrencyLimiter == null && this.metrics == null) {
+      return;
+    }
+
+    final long latencyNanos = System.nanoTime() - startTime;
+    if (this.concurrencyLimiter != null) {
+      this.concurrencyLimiter.release(latencyNanos);
+    }
+
+    if (this.metrics != null) {
+      this.metrics.recordPhase(this.name, TryMetrics.Phase.SUPPLIER, latencyNanos);
+    }
+  }
+
+  // allocated bytes of the thread building a chain, chain building is what the thread allocated till the first
+  // execution of the chain, when that is on the same thread. Later executions of a reused chain, and executions on other
+  // threads, would subtract a stamp which is old or from another thread's counter
+  private static class ChainStamp {
+    final private long allocatedBytes;
+    final private long threadId;
+    final private AtomicBoolean executed = new AtomicBoolean();
+
+    ChainStamp(final long allocatedBytes) {
+      this.allocatedBytes = allocatedBytes;
+      this.threadId = Thread.currentThread().getId();
+    }
+
+    boolean isFirstExecutionOnBuildingThread() {
+      return this.executed.compareAndSet(false, true) && Thread.currentThread().getId() == this.threadId;
+    }
+  }
+}
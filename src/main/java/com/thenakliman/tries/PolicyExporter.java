@@ -0,0 +1,158 @@
+package com.thenakliman.tries;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+public class PolicyExporter {
+  final private static double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+  final private static double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  final private StripedCounterMetrics counters;
+  final private LatencyHistogramMetrics histograms;
+  final private MBeanServer mBeanServer;
+  // sorted so that every snapshot lists the policies in the same order
+  final private Map<String, PolicyStatistics> policies = new ConcurrentSkipListMap<>();
+
+  public PolicyExporter(final StripedCounterMetrics counters, final LatencyHistogramMetrics histograms) {
+    this(counters, histograms, ManagementFactory.getPlatformMBeanServer());
+  }
+
+  public PolicyExporter(final StripedCounterMetrics counters,
+                        final LatencyHistogramMetrics histograms,
+                        final MBeanServer mBeanServer) {
+    this.counters = counters;
+    this.histograms = histograms;
+    this.mBeanServer = mBeanServer;
+  }
+
+  public void register(final Policy policy) {
+    final PolicyStatistics statistics = new PolicyStatistics(policy, this.counters, this.histograms);
+    try {
+      final ObjectName objectName = objectNameOf(policy.getName());
+      if (this.mBeanServer.isRegistered(objectName)) {
+        this.mBeanServer.unregisterMBean(objectName);
+      }
+      this.mBeanServer.registerMBean(statistics, objectName);
+    } catch (JMException exception) {
+      throw new IllegalStateException("failed to register policy " + policy.getName(), exception);
+    }
+
+    this.policies.put(policy.getName(), statistics);
+  }
+
+  public void unregister(final Policy policy) {
+    this.policies.remove(policy.getName());
+    try {
+      final ObjectName objectName = objectNameOf(policy.getName());
+      if (this.mBeanServer.isRegistered(objectName)) {
+        this.mBeanServer.unregisterMBean(objectName);
+      }
+    } catch (JMException exception) {
+      throw new IllegalStateException("failed to unregister policy " + policy.getName(), exception);
+    }
+  }
+
+  public static ObjectName objectNameOf(final String policyName) throws JMException {
+    return new ObjectName("com.thenakliman.tries:type=Policy,name=" + ObjectName.quote(policyName));
+  }
+
+  public void writePrometheus(final Path file) throws IOException {
+    final Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+    try (Writer writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+      writePrometheus(writer);
+    }
+
+    // textfile collectors may read at any time, they must never see a half written file
+    Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  public void writePrometheus(final Writer writer) throws IOException {
+    writeHeader(writer, "try_executions_total", "counter", "Executions per policy and outcome.");
+    for (PolicyStatistics statistics : this.policies.values()) {
+      for (TryMetrics.Outcome outcome : TryMetrics.Outcome.values()) {
+        writeSample(writer, "try_executions_total", statistics.getName(), "outcome", outcome.name().toLowerCase(),
+                this.counters.getCount(statistics.getName(), outcome));
+      }
+    }
+
+    writeHeader(writer, "try_exceptions_total", "counter", "Raised exceptions per policy and exception class.");
+    for (PolicyStatistics statistics : this.policies.values()) {
+      for (Map.Entry<Class<? extends Throwable>, Long> exceptionCount
+              : this.counters.getExceptionCounts(statistics.getName()).entrySet()) {
+        writeSample(writer, "try_exceptions_total", statistics.getName(), "exception",
+                exceptionCount.getKey().getName(), exceptionCount.getValue());
+      }
+    }
+
+    writeHeader(writer, "try_latency_seconds", "summary", "Latency of executions per policy.");
+    for (PolicyStatistics statistics : this.policies.values()) {
+      final LatencyHistogram.Snapshot latency = statistics.latency();
+      for (double quantile : QUANTILES) {
+        writeSample(writer, "try_latency_seconds", statistics.getName(), "quantile", Double.toString(quantile),
+                latency.getPercentile(quantile * 100) / NANOS_PER_SECOND);
+      }
+      writeSample(writer, "try_latency_seconds_sum", statistics.getName(),
+              statistics.getTotalLatencyNanos() / NANOS_PER_SECOND);
+      writeSample(writer, "try_latency_seconds_count", statistics.getName(),
+              this.counters.getTotalCount(statistics.getName()));
+    }
+
+    writeHeader(writer, "try_concurrency_limit", "gauge", "Concurrency limit per policy, -1 when not limited.");
+    for (PolicyStatistics statistics : this.policies.values()) {
+      writeSample(writer, "try_concurrency_limit", statistics.getName(), statistics.getConcurrencyLimit());
+    }
+
+    writeHeader(writer, "try_in_flight", "gauge", "Executions in flight per concurrency limited policy.");
+    for (PolicyStatistics statistics : this.policies.values()) {
+      if (statistics.getConcurrencyLimit() != PolicyStatistics.NO_LIMIT) {
+        writeSample(writer, "try_in_flight", statistics.getName(), statistics.getInFlight());
+      }
+    }
+
+    writer.flush();
+  }
+
+  private static void writeHeader(final Writer writer,
+                                  final String metric,
+                                  final String type,
+                                  final String help) throws IOException {
+    writer.write("# HELP " + metric + " " + help + "\n");
+    writer.write("# TYPE " + metric + " " + type + "\n");
+  }
+
+  private static void writeSample(final Writer writer,
+                                  final String metric,
+                                  final String policyName,
+                                  final double value) throws IOException {
+    writer.write(metric + "{policy=\"" + escape(policyName) + "\"} " + format(value) + "\n");
+  }
+
+  private static void writeSample(final Writer writer,
+                                  final String metric,
+                                  final String policyName,
+                                  final String label,
+                                  final String labelValue,
+                                  final double value) throws IOException {
+    writer.write(metric + "{policy=\"" + escape(policyName) + "\"," + label + "=\"" + escape(labelValue) + "\"} "
+            + format(value) + "\n");
+  }
+
+  private static String format(final double value) {
+    return value == Math.rint(value) && !Double.isInfinite(value) ? Long.toString((long) value) : Double.toString(value);
+  }
+
+  private static String escape(final String labelValue) {
+    return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+}
@@ -0,0 +1,26 @@
+package com.thenakliman.tries;
+
+public interface PolicyMXBean {
+  String getName();
+
+  long getSuccessCount();
+
+  long getHandledCount();
+
+  long getRethrownCount();
+
+  long getTotalLatencyNanos();
+
+  long getLatencyP50Nanos();
+
+  long getLatencyP99Nanos();
+
+  long getLatencyP999Nanos();
+
+  long getMaxLatencyNanos();
+
+  // -1 when the policy has no concurrency limiter
+  int getConcurrencyLimit();
+
+  int getInFlight();
+}
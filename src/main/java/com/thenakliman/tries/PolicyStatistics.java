@@ -0,0 +1,78 @@
+package com.thenakliman.tries;
+
+class PolicyStatistics implements PolicyMXBean {
+  final static int NO_LIMIT = -1;
+
+  final private Policy policy;
+  final private StripedCounterMetrics counters;
+  final private LatencyHistogramMetrics histograms;
+
+  PolicyStatistics(final Policy policy,
+                   final StripedCounterMetrics counters,
+                   final LatencyHistogramMetrics histograms) {
+    this.policy = policy;
+    this.counters = counters;
+    this.histograms = histograms;
+  }
+
+  @Override
+  public String getName() {
+    return this.policy.getName();
+  }
+
+  @Override
+  public long getSuccessCount() {
+    return this.counters.getCount(getName(), TryMetrics.Outcome.SUCCESS);
+  }
+
+  @Override
+  public long getHandledCount() {
+    return this.counters.getCount(getName(), TryMetrics.Outcome.HANDLED);
+  }
+
+  @Override
+  public long getRethrownCount() {
+    return this.counters.getCount(getName(), TryMetrics.Outcome.RETHROWN);
+  }
+
+  @Override
+  public long getTotalLatencyNanos() {
+    return this.counters.getTotalLatencyNanos(getName());
+  }
+
+  @Override
+  public long getLatencyP50Nanos() {
+    return latency().getPercentile(50);
+  }
+
+  @Override
+  public long getLatencyP99Nanos() {
+    return latency().getPercentile(99);
+  }
+
+  @Override
+  public long getLatencyP999Nanos() {
+    return latency().getPercentile(99.9);
+  }
+
+  @Override
+  public long getMaxLatencyNanos() {
+    return latency().getMax();
+  }
+
+  @Override
+  public int getConcurrencyLimit() {
+    final AdaptiveConcurrencyLimiter concurrencyLimiter = this.policy.getConcurrencyLimiter();
+    return concurrencyLimiter == null ? NO_LIMIT : concurrencyLimiter.getLimit();
+  }
+
+  @Override
+  public int getInFlight() {
+    final AdaptiveConcurrencyLimiter concurrencyLimiter = this.policy.getConcurrencyLimiter();
+    return concurrencyLimiter == null ? 0 : concurrencyLimiter.getInFlight();
+  }
+
+  LatencyHistogram.Snapshot latency() {
+    return this.histograms.getTotalHistogram(getName()).snapshot();
+  }
+}
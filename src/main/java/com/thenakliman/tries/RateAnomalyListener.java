@@ -0,0 +1,15 @@
+package com.thenakliman.tries;
+
+@FunctionalInterface
+public interface RateAnomalyListener {
+  enum Anomaly {
+    THRESHOLD_CROSSED,
+    DEVIATION
+  }
+
+  void onAnomaly(final String policyName,
+                 final Class<? extends Throwable> exceptionClass,
+                 final Anomaly anomaly,
+                 final double failureRatio,
+                 final double baselineFailureRatio);
+}
@@ -0,0 +1,6 @@
+package com.thenakliman.tries;
+
+@FunctionalInterface
+public interface ResourceCloseFailureListener {
+  void onCloseFailure(final AutoCloseable resource, final Throwable failure);
+}
@@ -0,0 +1,59 @@
+package com.thenakliman.tries;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ResourceCloseFailures {
+  // counts close failures of chains whose policy has no close failures of its own, so that they are never lost
+  final private static ResourceCloseFailures UNOWNED = new ResourceCloseFailures();
+
+  final private ConcurrentMap<Class<?>, LongAdder> failures = new ConcurrentHashMap<>();
+  final private ResourceCloseFailureListener listener;
+
+  public ResourceCloseFailures() {
+    this(null);
+  }
+
+  public ResourceCloseFailures(final ResourceCloseFailureListener listener) {
+    this.listener = listener;
+  }
+
+  public static ResourceCloseFailures unowned() {
+    return UNOWNED;
+  }
+
+  public long getCount(final Class<?> resourceClass) {
+    final LongAdder resourceFailures = this.failures.get(resourceClass);
+    return resourceFailures == null ? 0 : resourceFailures.sum();
+  }
+
+  public Map<Class<?>, Long> getCounts() {
+    final Map<Class<?>, Long> counts = new HashMap<>();
+    this.failures.forEach((resourceClass, resourceFailures) -> counts.put(resourceClass, resourceFailures.sum()));
+    return counts;
+  }
+
+  public void reset() {
+    this.failures.clear();
+  }
+
+  void record(final AutoCloseable resource, final Throwable failure) {
+    final Class<?> resourceClass = resource.getClass();
+    LongAdder resourceFailures = this.failures.get(resourceClass);
+    if (resourceFailures == null) {
+      resourceFailures = this.failures.computeIfAbsent(resourceClass, ignored -> new LongAdder());
+    }
+    resourceFailures.increment();
+
+    if (this.listener != null) {
+      try {
+        this.listener.onCloseFailure(resource, failure);
+      } catch (Throwable throwable) {
+        // a failing listener must not turn a swallowed close failure into a failed execution
+      }
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.thenakliman.tries;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static com.thenakliman.tries.SneakyThrower.sneakyThrow;
+
+public class SingleFlight<K, T> {
+  final private ConcurrentHashMap<K, InFlightCall<T>> inFlightCalls = new ConcurrentHashMap<>();
+
+  T execute(final K key, final Supplier<T> execution, final Runnable onJoin, final Policy policy) {
+    final InFlightCall<T> call = new InFlightCall<>(Thread.currentThread());
+    final InFlightCall<T> inFlightCall = this.inFlightCalls.putIfAbsent(key, call);
+    if (inFlightCall != null) {
+      onJoin.run();
+      // a supplier executing the same key again would wait for its own call forever
+      if (inFlightCall.owner == Thread.currentThread()) {
+        throw new IllegalStateException("single flight call of key " + key + " is re-entered by its own execution");
+      }
+
+      return await(inFlightCall, policy);
+    }
+
+    try {
+      final T value = execution.get();
+      call.complete(value);
+      return value;
+    } catch (Throwable throwable) {
+      call.fail(throwable);
+      throw sneakyThrow(throwable);
+    } finally {
+      this.inFlightCalls.remove(key, call);
+    }
+  }
+
+  int inFlight() {
+    return this.inFlightCalls.size();
+  }
+
+  private T await(final InFlightCall<T> inFlightCall, final Policy policy) {
+    final long deadlineNanos = policy.awaitDeadlineNanos();
+    final T value;
+    try {
+      value = deadlineNanos == Deadline.NONE
+              ? inFlightCall.get()
+              : inFlightCall.get(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw sneakyThrow(exception);
+    } catch (TimeoutException exception) {
+      throw sneakyThrow(new DeadlineExceededException(policy.getName(), deadlineNanos - System.nanoTime()));
+    } catch (ExecutionException exception) {
+      // calls are never completed exceptionally, failures are kept by the call
+      throw sneakyThrow(exception.getCause());
+    }
+
+    if (inFlightCall.failure != null) {
+      throw sneakyThrow(inFlightCall.failure);
+    }
+
+    return value;
+  }
+
+  // failures are kept rather than completed exceptionally, so that every caller raises the very same exception
+  // instead of what is left after unwrapping a CompletionException
+  private static class InFlightCall<T> extends CompletableFuture<T> {
+    final private Thread owner;
+    private volatile Throwable failure;
+
+    InFlightCall(final Thread owner) {
+      this.owner = owner;
+    }
+
+    void fail(final Throwable failure) {
+      this.failure = failure;
+      complete(null);
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package com.thenakliman.tries;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class StripedCounterMetrics implements TryMetrics {
+  final private ConcurrentHashMap<String, PolicyCounters> policyCounters = new ConcurrentHashMap<>();
+
+  @Override
+  public void record(final String policyName,
+                     final Outcome outcome,
+                     final Class<? extends Throwable> exceptionClass,
+                     final int handlerIndex,
+                     final long latencyNanos) {
+    final PolicyCounters counters = countersOf(policyName);
+    counters.outcomes[outcome.ordinal()].increment();
+    counters.latencyNanos.add(latencyNanos);
+    if (exceptionClass != null) {
+      counterOf(counters.exceptions, exceptionClass).increment();
+    }
+
+    if (handlerIndex != NO_HANDLER) {
+      counterOf(counters.handlers, handlerIndex).increment();
+    }
+  }
+
+  public long getCount(final String policyName, final Outcome outcome) {
+    final PolicyCounters counters = this.policyCounters.get(policyName);
+    return counters == null ? 0 : counters.outcomes[outcome.ordinal()].sum();
+  }
+
+  public long getTotalCount(final String policyName) {
+    long total = 0;
+    for (Outcome outcome : Outcome.values()) {
+      total += getCount(policyName, outcome);
+    }
+
+    return total;
+  }
+
+  public long getTotalLatencyNanos(final String policyName) {
+    final PolicyCounters counters = this.policyCounters.get(policyName);
+    return counters == null ? 0 : counters.latencyNanos.sum();
+  }
+
+  public long getExceptionCount(final String policyName, final Class<? extends Throwable> exceptionClass) {
+    final PolicyCounters counters = this.policyCounters.get(policyName);
+    return counters == null ? 0 : sum(counters.exceptions.get(exceptionClass));
+  }
+
+  public long getHandlerCount(final String policyName, final int handlerIndex) {
+    final PolicyCounters counters = this.policyCounters.get(policyName);
+    return counters == null ? 0 : sum(counters.handlers.get(handlerIndex));
+  }
+
+  public Map<Class<? extends Throwable>, Long> getExceptionCounts(final String policyName) {
+    final PolicyCounters counters = this.policyCounters.get(policyName);
+    if (counters == null) {
+      return Collections.emptyMap();
+    }
+
+    final Map<Class<? extends Throwable>, Long> exceptionCounts = new HashMap<>();
+    counters.exceptions.forEach((exceptionClass, counter) -> exceptionCounts.put(exceptionClass, counter.sum()));
+    return Collections.unmodifiableMap(exceptionCounts);
+  }
+
+  public Set<String> getPolicyNames() {
+    return Collections.unmodifiableSet(this.policyCounters.keySet());
+  }
+
+  public void reset() {
+    this.policyCounters.clear();
+  }
+
+  private PolicyCounters countersOf(final String policyName) {
+    final PolicyCounters counters = this.policyCounters.get(policyName);
+    if (counters != null) {
+      return counters;
+    }
+
+    return this.policyCounters.computeIfAbsent(policyName, name -> new PolicyCounters());
+  }
+
+  private static <K> LongAdder counterOf(final ConcurrentHashMap<K, LongAdder> counters, final K key) {
+    final LongAdder counter = counters.get(key);
+    if (counter != null) {
+      return counter;
+    }
+
+    return counters.computeIfAbsent(key, newKey -> new LongAdder());
+  }
+
+  private static long sum(final LongAdder counter) {
+    return counter == null ? 0 : counter.sum();
+  }
+
+  private static class PolicyCounters {
+    final private LongAdder[] outcomes = new LongAdder[Outcome.values().length];
+    final private LongAdder latencyNanos = new LongAdder();
+    final private ConcurrentHashMap<Class<? extends Throwable>, LongAdder> exceptions = new ConcurrentHashMap<>();
+    final private ConcurrentHashMap<Integer, LongAdder> handlers = new ConcurrentHashMap<>();
+
+    PolicyCounters() {
+      for (int i = 0; i < this.outcomes.length; i++) {
+        this.outcomes[i] = new LongAdder();
+      }
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package com.thenakliman.tries;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+public class ThrottledExceptionReporter implements Consumer<Throwable> {
+  final private static int DEFAULT_FRAMES = 3;
+  final private static int DEFAULT_MAXIMUM_FINGERPRINTS = 1024;
+
+  final private ExceptionReporter reporter;
+  final private long intervalNanos;
+  final private int frames;
+  final private int maximumFingerprints;
+  final private LongSupplier nanoClock;
+  final private ConcurrentMap<Fingerprint, ReportWindow> windows = new ConcurrentHashMap<>();
+  // shared by every fingerprint that does not fit in the map, so a burst of distinct exceptions is throttled as well
+  final private ReportWindow overflowWindow;
+  final private AtomicLong nextPurgeAt;
+  final private LongAdder suppressedCount = new LongAdder();
+
+  public ThrottledExceptionReporter(final ExceptionReporter reporter, final Duration interval) {
+    this(reporter, interval, DEFAULT_FRAMES, DEFAULT_MAXIMUM_FINGERPRINTS);
+  }
+
+  public ThrottledExceptionReporter(final ExceptionReporter reporter,
+                                    final Duration interval,
+                                    final int frames,
+                                    final int maximumFingerprints) {
+    this(reporter, interval, frames, maximumFingerprints, System::nanoTime);
+  }
+
+  ThrottledExceptionReporter(final ExceptionReporter reporter,
+                             final Duration interval,
+                             final int frames,
+                             final int maximumFingerprints,
+                             final LongSupplier nanoClock) {
+    if (interval.isNegative() || interval.isZero()) {
+      throw new IllegalArgumentException("interval must be positive, but was " + interval);
+    }
+
+    if (frames < 0) {
+      throw new IllegalArgumentException("frames must not be negative, but was " + frames);
+    }
+
+    if (maximumFingerprints < 1) {
+      throw new IllegalArgumentException("maximumFingerprints must be positive, but was " + maximumFingerprints);
+    }
+
+    this.reporter = reporter;
+    this.intervalNanos = interval.toNanos();
+    this.frames = frames;
+    this.maximumFingerprints = maximumFingerprints;
+    this.nanoClock = nanoClock;
+    final long now = nanoClock.getAsLong();
+    this.overflowWindow = new ReportWindow(now);
+    this.nextPurgeAt = new AtomicLong(now);
+  }
+
+  @Override
+  public void accept(final Throwable exception) {
+    final long now = this.nanoClock.getAsLong();
+    final ReportWindow window = windowOf(new Fingerprint(exception, this.frames), now);
+    if (window.tryOpen(now, this.intervalNanos)) {
+      this.reporter.report(exception, window.suppressed.sumThenReset());
+    } else {
+      window.suppressed.increment();
+      this.suppressedCount.increment();
+    }
+  }
+
+  public <T> Function<Throwable, T> andGet(final Function<Throwable, T> valueProvider) {
+    return (exception) -> {
+      accept(exception);
+      return valueProvider.apply(exception);
+    };
+  }
+
+  public long getSuppressedCount() {
+    return this.suppressedCount.sum();
+  }
+
+  public int getFingerprintCount() {
+    return this.windows.size();
+  }
+
+  private ReportWindow windowOf(final Fingerprint fingerprint, final long now) {
+    final ReportWindow window = this.windows.get(fingerprint);
+    if (window != null) {
+      return window;
+    }
+
+    if (this.windows.size() >= this.maximumFingerprints && !purgeIdleWindows(now)) {
+      return this.overflowWindow;
+    }
+
+    return this.windows.computeIfAbsent(fingerprint, ignored -> new ReportWindow(now));
+  }
+
+  private boolean purgeIdleWindows(final long now) {
+    final long nextPurge = this.nextPurgeAt.get();
+    if (now - nextPurge >= 0 && this.nextPurgeAt.compareAndSet(nextPurge, now + this.intervalNanos)) {
+      this.windows.values().removeIf(window -> window.isIdle(now));
+    }
+
+    return this.windows.size() < this.maximumFingerprints;
+  }
+
+  private static class ReportWindow {
+    final private AtomicLong nextReportAt;
+    final private LongAdder suppressed = new LongAdder();
+
+    ReportWindow(final long now) {
+      this.nextReportAt = new AtomicLong(now);
+    }
+
+    boolean tryOpen(final long now, final long intervalNanos) {
+      final long nextReport = this.nextReportAt.get();
+      return now - nextReport >= 0 && this.nextReportAt.compareAndSet(nextReport, now + intervalNanos);
+    }
+
+    // suppressed exceptions are only reported when the fingerprint recurs, a fingerprint which does not recur within
+    // the interval is purged along with them, they stay in the suppressed count of the reporter
+    boolean isIdle(final long now) {
+      return now - this.nextReportAt.get() >= 0;
+    }
+  }
+
+  private static class Fingerprint {
+    final private Class<? extends Throwable> exceptionClass;
+    final private StackTraceElement[] topFrames;
+    final private int hash;
+
+    Fingerprint(final Throwable exception, final int frames) {
+      final StackTraceElement[] stackTrace = exception.getStackTrace();
+      this.exceptionClass = exception.getClass();
+      this.topFrames = Arrays.copyOf(stackTrace, Math.min(frames, stackTrace.length));
+      this.hash = 31 * this.exceptionClass.hashCode() + Arrays.hashCode(this.topFrames);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if (this == other) {
+        return true;
+      }
+
+      if (!(other instanceof Fingerprint)) {
+        return false;
+      }
+
+      final Fingerprint fingerprint = (Fingerprint) other;
+      return this.hash == fingerprint.hash
+              && this.exceptionClass == fingerprint.exceptionClass
+              && Arrays.equals(this.topFrames, fingerprint.topFrames);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
+}
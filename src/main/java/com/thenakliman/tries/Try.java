@@ -1,5 +1,7 @@
 package com.thenakliman.tries;
 
+import java.time.Duration;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
 public class Try {
@@ -11,6 +13,17 @@ public class Try {
     return new TryToGet<>(supplier);
   }
 
+  // refreshes run on the given executor, suppliers doing blocking I/O need one of their own rather than a shared pool
+  public static <T> TryToGet<T> toGetMemoized(final Supplier<T> supplier,
+                                              final Duration ttl,
+                                              final Executor refreshExecutor) {
+    return new TryToGet<>(new MemoizedSupplier<>(supplier, ttl.toNanos(), refreshExecutor, System::nanoTime));
+  }
+
+  public static TryWithPolicy withPolicy(final Policy policy) {
+    return new TryWithPolicy(policy);
+  }
+
   public static TryWithResources withResources(AutoCloseable... resources) {
     return new TryWithResources(resources);
   }
@@ -0,0 +1,28 @@
+package com.thenakliman.tries;
+
+public interface TryMetrics {
+  enum Outcome {
+    SUCCESS,
+    HANDLED,
+    RETHROWN
+  }
+
+  enum Phase {
+    SUPPLIER,
+    HANDLER,
+    CLOSE,
+    ELSE_CALL,
+    FINALLY
+  }
+
+  int NO_HANDLER = -1;
+
+  void record(final String policyName,
+              final Outcome outcome,
+              final Class<? extends Throwable> exceptionClass,
+              final int handlerIndex,
+              final long latencyNanos);
+
+  default void recordPhase(final String policyName, final Phase phase, final long latencyNanos) {
+  }
+}
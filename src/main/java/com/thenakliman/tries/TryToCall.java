@@ -1,9 +1,12 @@
 package com.thenakliman.tries;
 
+import com.thenakliman.tries.internal.ExecutionEvent;
+import com.thenakliman.tries.internal.FlightRecording;
+import com.thenakliman.tries.internal.HandlerMatchEvent;
+
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import static com.thenakliman.tries.Constant.DO_NOTHING;
 import static com.thenakliman.tries.SneakyThrower.sneakyThrow;
@@ -12,48 +15,81 @@ import static com.thenakliman.tries.Utils.executeCallable;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 
-class TryToCall {
+public class TryToCall {
   final private Callable callable;
   final private AutoCloseable[] resources;
+  final private Policy policy;
 
   TryToCall(final Callable callable) {
-    this.callable = callable;
-    this.resources = new AutoCloseable[0];
+    this(callable, new AutoCloseable[0], Policy.NONE);
   }
 
-  TryToCall(final Callable callable, final AutoCloseable[] resources) {
+  TryToCall(final Callable callable, final AutoCloseable[] resources, final Policy policy) {
     this.callable = callable;
     this.resources = resources;
+    this.policy = policy;
   }
 
   @SuppressWarnings("unchecked")
-  ThenHandler ifRaises(final Class<? extends Throwable>... exceptionsToBeHandle) {
+  public ThenHandler ifRaises(final Class<? extends Throwable>... exceptionsToBeHandle) {
     return new ThenHandler(
             this.callable,
             asList(exceptionsToBeHandle),
             emptyList(),
-            this.resources);
+            this.resources,
+            this.policy);
+  }
+
+  public void done() {
+    final long allocatedBytes = this.policy.startExecution();
+    try {
+      doneExecution();
+    } finally {
+      this.policy.recordAllocation(AllocationMetrics.Phase.EXECUTION, allocatedBytes);
+    }
   }
 
-  void done() {
+  private void doneExecution() {
+    final long startTime = this.policy.startTime();
+    final boolean sampled = this.policy.samplePhases();
+    final ExecutionEvent event = FlightRecording.beginExecution();
     try {
-      callable.call();
+      this.policy.call(this.callable);
     } catch (Throwable raisedException) {
-      closeResources(resources);
+      closeResources(this.resources, raisedException, this.policy, sampled);
+      this.policy.recordRethrown(raisedException, startTime, event);
       throw sneakyThrow(raisedException);
     }
+    this.policy.recordSuccess(startTime, event);
   }
 
-  void finallyDone(final Callable finallyCallable) {
+  public void finallyDone(final Callable finallyCallable) {
+    final long allocatedBytes = this.policy.startExecution();
     try {
-      this.callable.call();
+      finallyDoneExecution(finallyCallable);
+    } finally {
+      this.policy.recordAllocation(AllocationMetrics.Phase.EXECUTION, allocatedBytes);
+    }
+  }
+
+  private void finallyDoneExecution(final Callable finallyCallable) {
+    final long startTime = this.policy.startTime();
+    final boolean sampled = this.policy.samplePhases();
+    final ExecutionEvent event = FlightRecording.beginExecution();
+    Throwable failure = null;
+    try {
+      this.policy.call(this.callable);
     } catch (Throwable raisedException) {
-      closeResources(this.resources);
+      failure = raisedException;
+      this.policy.recordRethrown(raisedException, startTime, event);
       throw sneakyThrow(raisedException);
     } finally {
-      closeResources(this.resources);
+      closeResources(this.resources, failure, this.policy, sampled);
+      final long finallyStartTime = this.policy.startPhase(sampled);
       executeCallable(finallyCallable);
+      this.policy.endPhase(sampled, TryMetrics.Phase.FINALLY, finallyStartTime);
     }
+    this.policy.recordSuccess(startTime, event);
   }
 
   public static class ThenHandler {
@@ -61,43 +97,53 @@ class TryToCall {
     final private List<Class<? extends Throwable>> exceptionsToBeHandled;
     final private List<IExceptionHandler> exceptionsHandlers;
     final private AutoCloseable[] resources;
+    final private Policy policy;
 
-    public ThenHandler(final Callable callable,
+    ThenHandler(final Callable callable,
                        final List<Class<? extends Throwable>> exceptionsToBeHandled,
                        final List<IExceptionHandler> exceptionsHandlers,
-                       final AutoCloseable[] resources) {
+                       final AutoCloseable[] resources,
+                       final Policy policy) {
       this.callable = callable;
       this.exceptionsToBeHandled = exceptionsToBeHandled;
       this.exceptionsHandlers = exceptionsHandlers;
       this.resources = resources;
+      this.policy = policy;
     }
 
     public Executor thenCall(final Consumer<Throwable> onExceptionCallable) {
-      final ArrayList<IExceptionHandler> alreadyRegisteredExceptionHandlers = new ArrayList<>(this.exceptionsHandlers);
-      final List<IExceptionHandler> exceptionHandlers = this.exceptionsToBeHandled.stream()
-              .map(exception -> new ExceptionConsumer(exception, onExceptionCallable))
-              .collect(Collectors.toList());
+      final List<IExceptionHandler> alreadyRegisteredExceptionHandlers = registeredExceptionHandlers();
+      for (Class<? extends Throwable> exception : this.exceptionsToBeHandled) {
+        alreadyRegisteredExceptionHandlers.add(new ExceptionConsumer(exception, onExceptionCallable));
+      }
 
-      alreadyRegisteredExceptionHandlers.addAll(exceptionHandlers);
       return new Executor(
               this.callable,
               Collections.unmodifiableList(alreadyRegisteredExceptionHandlers),
               DO_NOTHING,
-              this.resources);
+              this.resources,
+              this.policy);
     }
 
     public <E extends Throwable> Executor thenThrow(final Function<Throwable, ? extends E> onExceptionFunction) throws E {
-      final ArrayList<IExceptionHandler> alreadyRegisteredExceptionHandlers = new ArrayList<>(this.exceptionsHandlers);
-      final List<IExceptionHandler> exceptionHandlers = this.exceptionsToBeHandled.stream()
-              .map(exception -> new ExceptionThrower(exception, onExceptionFunction))
-              .collect(Collectors.toList());
+      final List<IExceptionHandler> alreadyRegisteredExceptionHandlers = registeredExceptionHandlers();
+      for (Class<? extends Throwable> exception : this.exceptionsToBeHandled) {
+        alreadyRegisteredExceptionHandlers.add(new ExceptionThrower(exception, onExceptionFunction));
+      }
 
-      alreadyRegisteredExceptionHandlers.addAll(exceptionHandlers);
       return new Executor(
               this.callable,
               Collections.unmodifiableList(alreadyRegisteredExceptionHandlers),
               DO_NOTHING,
-              this.resources);
+              this.resources,
+              this.policy);
+    }
+
+    private List<IExceptionHandler> registeredExceptionHandlers() {
+      final List<IExceptionHandler> registeredExceptionHandlers =
+              new ArrayList<>(this.exceptionsHandlers.size() + this.exceptionsToBeHandled.size());
+      registeredExceptionHandlers.addAll(this.exceptionsHandlers);
+      return registeredExceptionHandlers;
     }
   }
 
@@ -147,11 +193,11 @@ class TryToCall {
     }
   }
 
-  interface IElseCall {
+  public interface IElseCall {
     IExecutor elseCall(final Callable onSuccessCallable);
   }
 
-  interface IExecutor {
+  public interface IExecutor {
     void done();
 
     void finallyDone(final Callable finallyCallable);
@@ -162,63 +208,122 @@ class TryToCall {
     final private List<IExceptionHandler> registeredExceptionHandlers;
     final private Callable onSuccessCallable;
     final private AutoCloseable[] resourcesToBeClosed;
+    final private Policy policy;
 
-    public Executor(final Callable callable,
+    Executor(final Callable callable,
                     final List<IExceptionHandler> registeredExceptionHandlers,
                     final Callable doNothing,
-                    final AutoCloseable[] resourcesToBeClosed) {
+                    final AutoCloseable[] resourcesToBeClosed,
+                    final Policy policy) {
       this.callable = callable;
       this.registeredExceptionHandlers = registeredExceptionHandlers;
       this.onSuccessCallable = doNothing;
       this.resourcesToBeClosed = resourcesToBeClosed;
+      this.policy = policy;
     }
 
     @Override
     public void done() {
+      final long allocatedBytes = this.policy.startExecution();
+      try {
+        doneExecution();
+      } finally {
+        this.policy.recordAllocation(AllocationMetrics.Phase.EXECUTION, allocatedBytes);
+      }
+    }
+
+    private void doneExecution() {
+      final long startTime = this.policy.startTime();
+      final boolean sampled = this.policy.samplePhases();
+      final ExecutionEvent event = FlightRecording.beginExecution();
       boolean success = false;
       try {
-        this.callable.call();
+        this.policy.call(this.callable);
         success = true;
       } catch (Throwable raisedException) {
-        handleRegisteredExceptions(raisedException);
+        handleRegisteredExceptions(raisedException, startTime, sampled, event);
       }
 
       if (success) {
-        closeResources(this.resourcesToBeClosed);
+        closeResources(this.resourcesToBeClosed, this.policy, sampled);
+        this.policy.recordSuccess(startTime, event);
+        final long elseCallStartTime = this.policy.startPhase(sampled);
         executeCallable(this.onSuccessCallable);
+        this.policy.endPhase(sampled, TryMetrics.Phase.ELSE_CALL, elseCallStartTime);
       }
     }
 
-    private void handleRegisteredExceptions(final Throwable raisedException) {
-      closeResources(this.resourcesToBeClosed);
-      final Optional<IExceptionHandler> matchedException = this.registeredExceptionHandlers.stream()
-              .filter((exceptionHandler -> exceptionHandler.getExceptionToBeHandled().isInstance(raisedException)))
-              .findFirst();
-
-      if (matchedException.isPresent()) {
-        matchedException.get().handleException(raisedException);
-      } else {
+    private void handleRegisteredExceptions(final Throwable raisedException,
+                                            final long startTime,
+                                            final boolean sampled,
+                                            final ExecutionEvent event) {
+      closeResources(this.resourcesToBeClosed, raisedException, this.policy, sampled);
+      final int handlerIndex = indexOfExceptionHandler(raisedException);
+      if (handlerIndex == TryMetrics.NO_HANDLER) {
+        this.policy.recordRethrown(raisedException, startTime, event);
         throw sneakyThrow(raisedException);
       }
+
+      final IExceptionHandler exceptionHandler = this.registeredExceptionHandlers.get(handlerIndex);
+      final HandlerMatchEvent handlerMatchEvent = FlightRecording.beginHandlerMatch();
+      final long handlerStartTime = this.policy.startTime();
+      final long handlerAllocatedBytes = this.policy.allocatedBytes();
+      try {
+        exceptionHandler.handleException(raisedException);
+      } finally {
+        this.policy.recordPhase(TryMetrics.Phase.HANDLER, handlerStartTime);
+        this.policy.recordAllocation(AllocationMetrics.Phase.HANDLER, handlerAllocatedBytes);
+        if (handlerMatchEvent != null) {
+          handlerMatchEvent.commit(this.policy.getName(), raisedException, exceptionHandler, handlerIndex);
+        }
+        this.policy.recordHandled(raisedException, handlerIndex, startTime, event);
+      }
+    }
+
+    private int indexOfExceptionHandler(final Throwable raisedException) {
+      for (int i = 0; i < this.registeredExceptionHandlers.size(); i++) {
+        if (this.registeredExceptionHandlers.get(i).getExceptionToBeHandled().isInstance(raisedException)) {
+          return i;
+        }
+      }
+
+      return TryMetrics.NO_HANDLER;
     }
 
     @Override
     public void finallyDone(final Callable finallyCallable) {
+      final long allocatedBytes = this.policy.startExecution();
+      try {
+        finallyDoneExecution(finallyCallable);
+      } finally {
+        this.policy.recordAllocation(AllocationMetrics.Phase.EXECUTION, allocatedBytes);
+      }
+    }
+
+    private void finallyDoneExecution(final Callable finallyCallable) {
+      final long startTime = this.policy.startTime();
+      final boolean sampled = this.policy.samplePhases();
+      final ExecutionEvent event = FlightRecording.beginExecution();
       boolean success = false;
       try {
-        this.callable.call();
+        this.policy.call(this.callable);
         success = true;
       } catch (Throwable raisedException) {
-        handleRegisteredExceptions(raisedException);
+        handleRegisteredExceptions(raisedException, startTime, sampled, event);
       } finally {
         if (success) {
-          closeResources(this.resourcesToBeClosed);
+          closeResources(this.resourcesToBeClosed, this.policy, sampled);
         }
+        final long finallyStartTime = this.policy.startPhase(sampled);
         executeCallable(finallyCallable);
+        this.policy.endPhase(sampled, TryMetrics.Phase.FINALLY, finallyStartTime);
       }
 
       if (success) {
+        this.policy.recordSuccess(startTime, event);
+        final long elseCallStartTime = this.policy.startPhase(sampled);
         executeCallable(this.onSuccessCallable);
+        this.policy.endPhase(sampled, TryMetrics.Phase.ELSE_CALL, elseCallStartTime);
       }
     }
 
@@ -228,7 +333,8 @@ class TryToCall {
               this.callable,
               Arrays.asList(exceptionsToBeHandled),
               this.registeredExceptionHandlers,
-              this.resourcesToBeClosed);
+              this.resourcesToBeClosed,
+              this.policy);
     }
 
     @Override
@@ -237,7 +343,8 @@ class TryToCall {
               this.callable,
               this.registeredExceptionHandlers,
               onSuccessCallable,
-              this.resourcesToBeClosed);
+              this.resourcesToBeClosed,
+              this.policy);
     }
   }
 }
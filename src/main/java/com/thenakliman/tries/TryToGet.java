@@ -1,13 +1,16 @@
 package com.thenakliman.tries;
 
+import com.thenakliman.tries.internal.ExecutionEvent;
+import com.thenakliman.tries.internal.FlightRecording;
+import com.thenakliman.tries.internal.HandlerMatchEvent;
+
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 import static com.thenakliman.tries.SneakyThrower.sneakyThrow;
 import static com.thenakliman.tries.Utils.closeResources;
@@ -15,70 +18,123 @@ import static com.thenakliman.tries.Utils.executeCallable;
 import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableList;
 
-class TryToGet<T> {
+public class TryToGet<T> {
   final private Supplier<T> valueProvider;
   final private AutoCloseable[] resources;
+  final private Policy policy;
 
   TryToGet(final Supplier<T> valueProvider) {
-    this.valueProvider = valueProvider;
-    this.resources = new AutoCloseable[0];
+    this(valueProvider, new AutoCloseable[0], Policy.NONE);
   }
 
-  public TryToGet(final Supplier<T> valueProvider, final AutoCloseable[] resources) {
+  TryToGet(final Supplier<T> valueProvider, final AutoCloseable[] resources, final Policy policy) {
     this.valueProvider = valueProvider;
     this.resources = resources;
+    this.policy = policy;
   }
 
   @SuppressWarnings("unchecked")
-  ThenHandler<T> ifRaises(final Class<? extends Throwable>... exceptionsToBeHandled) {
-    return new ThenHandler<T>(valueProvider, asList(exceptionsToBeHandled), Collections.emptyList(), this.resources);
+  public ThenHandler<T> ifRaises(final Class<? extends Throwable>... exceptionsToBeHandled) {
+    return new ThenHandler<T>(
+            valueProvider,
+            asList(exceptionsToBeHandled),
+            Collections.emptyList(),
+            ThenHandler.doNothingConsumer(),
+            this.resources,
+            this.policy);
   }
 
   public static class ThenHandler<T> {
     final private Supplier<T> valueProvider;
     final private List<Class<? extends Throwable>> exceptionsToBeHandled;
     final private List<IExceptionHandler<T>> exceptionHandlers;
+    final private Consumer<T> successRecorder;
     final private AutoCloseable[] resources;
-    final private Consumer<T> DO_NOTHING_CONSUMER = (value) -> {
-    };
+    final private Policy policy;
+    // shared by every chain, and not a lambda, which the first chain of the JVM would have to bootstrap
+    @SuppressWarnings("rawtypes")
+    final private static Consumer DO_NOTHING_CONSUMER = new DoNothingConsumer();
 
-    public ThenHandler(final Supplier<T> valueProvider,
+    ThenHandler(final Supplier<T> valueProvider,
                        final List<Class<? extends Throwable>> exceptionsToBeHandled,
                        final List<IExceptionHandler<T>> exceptionHandlers,
-                       final AutoCloseable[] resources) {
+                       final Consumer<T> successRecorder,
+                       final AutoCloseable[] resources,
+                       final Policy policy) {
 
       this.valueProvider = valueProvider;
       this.exceptionsToBeHandled = exceptionsToBeHandled;
       this.exceptionHandlers = exceptionHandlers;
+      this.successRecorder = successRecorder;
       this.resources = resources;
+      this.policy = policy;
     }
 
     public Executor<T> thenGet(final Function<Throwable, T> onExceptionValueProvider) {
-      final List<IExceptionHandler<T>> alreadyRegisteredExceptionHandlers = new ArrayList<>(this.exceptionHandlers);
-      final List<ExceptionConsumer<T>> exceptionConsumers = this.exceptionsToBeHandled.stream()
-              .map(exception -> new ExceptionConsumer<T>(exception, onExceptionValueProvider))
-              .collect(Collectors.toList());
+      final List<IExceptionHandler<T>> alreadyRegisteredExceptionHandlers = registeredExceptionHandlers();
+      for (Class<? extends Throwable> exception : this.exceptionsToBeHandled) {
+        alreadyRegisteredExceptionHandlers.add(new ExceptionConsumer<T>(exception, onExceptionValueProvider));
+      }
 
-      alreadyRegisteredExceptionHandlers.addAll(exceptionConsumers);
       return new Executor<>(
               this.valueProvider,
               unmodifiableList(alreadyRegisteredExceptionHandlers),
-              DO_NOTHING_CONSUMER,
-              this.resources);
+              doNothingConsumer(),
+              this.successRecorder,
+              this.resources,
+              this.policy);
     }
 
     public Executor<T> thenThrow(final Function<Throwable, ? extends Throwable> onExceptionNewExceptionProvider) {
-      final List<IExceptionHandler<T>> alreadyRegisteredExceptionHandlers = new ArrayList<>(this.exceptionHandlers);
-      final List<IExceptionHandler<T>> exceptionThrowers = this.exceptionsToBeHandled.stream()
-              .map(exception -> new ExceptionThrower<T>(exception, onExceptionNewExceptionProvider))
-              .collect(Collectors.toList());
+      final List<IExceptionHandler<T>> alreadyRegisteredExceptionHandlers = registeredExceptionHandlers();
+      for (Class<? extends Throwable> exception : this.exceptionsToBeHandled) {
+        alreadyRegisteredExceptionHandlers.add(new ExceptionThrower<T>(exception, onExceptionNewExceptionProvider));
+      }
+
+      return new Executor<>(
+              this.valueProvider,
+              unmodifiableList(alreadyRegisteredExceptionHandlers),
+              doNothingConsumer(),
+              this.successRecorder,
+              this.resources,
+              this.policy);
+    }
+
+    public <K> Executor<T> thenGetLastSuccessful(final LastSuccessfulCache<K, T> lastSuccessfulCache,
+                                                 final K key,
+                                                 final Duration maxStaleness) {
+      final List<IExceptionHandler<T>> alreadyRegisteredExceptionHandlers = registeredExceptionHandlers();
+      final long maxStalenessNanos = maxStaleness.toNanos();
+      for (Class<? extends Throwable> exception : this.exceptionsToBeHandled) {
+        alreadyRegisteredExceptionHandlers.add(
+                new LastSuccessfulValueProvider<>(exception, lastSuccessfulCache, key, maxStalenessNanos));
+      }
 
-      alreadyRegisteredExceptionHandlers.addAll(exceptionThrowers);
       return new Executor<>(
               this.valueProvider,
               unmodifiableList(alreadyRegisteredExceptionHandlers),
-              DO_NOTHING_CONSUMER,
-              this.resources);
+              doNothingConsumer(),
+              this.successRecorder.andThen(value -> lastSuccessfulCache.record(key, value)),
+              this.resources,
+              this.policy);
+    }
+
+    private List<IExceptionHandler<T>> registeredExceptionHandlers() {
+      final List<IExceptionHandler<T>> registeredExceptionHandlers =
+              new ArrayList<>(this.exceptionHandlers.size() + this.exceptionsToBeHandled.size());
+      registeredExceptionHandlers.addAll(this.exceptionHandlers);
+      return registeredExceptionHandlers;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> Consumer<T> doNothingConsumer() {
+      return (Consumer<T>) DO_NOTHING_CONSUMER;
+    }
+
+    private static class DoNothingConsumer implements Consumer<Object> {
+      @Override
+      public void accept(final Object value) {
+      }
     }
   }
 
@@ -86,6 +142,15 @@ class TryToGet<T> {
     T handleException(final Throwable exception);
 
     Class<? extends Throwable> getThrowableClass();
+
+    default boolean canHandle(final Throwable exception) {
+      return getThrowableClass().isInstance(exception);
+    }
+
+    // handler to handle the exception with, or null to leave it to the next registered handler
+    default IExceptionHandler<T> handlerFor(final Throwable exception) {
+      return canHandle(exception) ? this : null;
+    }
   }
 
   static class ExceptionConsumer<T> implements IExceptionHandler<T> {
@@ -128,85 +193,241 @@ class TryToGet<T> {
     }
   }
 
-  interface IElseCall<T> {
+  static class LastSuccessfulValueProvider<K, T> implements IExceptionHandler<T> {
+    final private Class<? extends Throwable> throwableClass;
+    final private LastSuccessfulCache<K, T> lastSuccessfulCache;
+    final private K key;
+    final private long maxStalenessNanos;
+
+    LastSuccessfulValueProvider(final Class<? extends Throwable> throwableClass,
+                                final LastSuccessfulCache<K, T> lastSuccessfulCache,
+                                final K key,
+                                final long maxStalenessNanos) {
+      this.throwableClass = throwableClass;
+      this.lastSuccessfulCache = lastSuccessfulCache;
+      this.key = key;
+      this.maxStalenessNanos = maxStalenessNanos;
+    }
+
+    public Class<? extends Throwable> getThrowableClass() {
+      return this.throwableClass;
+    }
+
+    // looks up the cache once, so that the value found fresh is the one served even if the entry is evicted or
+    // expires before the handler runs
+    @Override
+    public IExceptionHandler<T> handlerFor(final Throwable exception) {
+      if (!canHandle(exception)) {
+        return null;
+      }
+
+      final LastSuccessfulCache.Entry<T> entry = this.lastSuccessfulCache.getIfFresh(this.key, this.maxStalenessNanos);
+      return entry == null ? null : new LastSuccessfulValue<>(this.throwableClass, entry.getValue());
+    }
+
+    @Override
+    public T handleException(final Throwable exception) {
+      final IExceptionHandler<T> exceptionHandler = handlerFor(exception);
+      if (exceptionHandler == null) {
+        throw sneakyThrow(exception);
+      }
+
+      return exceptionHandler.handleException(exception);
+    }
+  }
+
+  static class LastSuccessfulValue<T> implements IExceptionHandler<T> {
+    final private Class<? extends Throwable> throwableClass;
+    final private T value;
+
+    LastSuccessfulValue(final Class<? extends Throwable> throwableClass, final T value) {
+      this.throwableClass = throwableClass;
+      this.value = value;
+    }
+
+    public Class<? extends Throwable> getThrowableClass() {
+      return this.throwableClass;
+    }
+
+    @Override
+    public T handleException(final Throwable exception) {
+      return this.value;
+    }
+  }
+
+  public interface IElseCall<T> {
     IExecutor<T> elseCall(Consumer<T> consumer);
   }
 
-  interface IExecutor<T> {
+  public interface IExecutor<T> {
     T done();
 
     T finallyDone(final Callable finallyCallable);
+
+    <K> T singleFlightDone(final SingleFlight<K, T> singleFlight, final K key);
   }
 
   public static class Executor<T> implements IElseCall<T>, IExecutor<T> {
     final private Supplier<T> valueProvider;
     final private List<IExceptionHandler<T>> exceptionsToBeHandled;
     final private Consumer<T> onSuccessConsumer;
+    final private Consumer<T> successRecorder;
     final private AutoCloseable[] resources;
+    final private Policy policy;
 
-    public Executor(final Supplier<T> valueProvider,
+    Executor(final Supplier<T> valueProvider,
                     final List<IExceptionHandler<T>> exceptionsToBeHandled,
                     final Consumer<T> onSuccessConsumer,
-                    final AutoCloseable[] resources) {
+                    final Consumer<T> successRecorder,
+                    final AutoCloseable[] resources,
+                    final Policy policy) {
 
       this.valueProvider = valueProvider;
       this.exceptionsToBeHandled = exceptionsToBeHandled;
       this.onSuccessConsumer = onSuccessConsumer;
+      this.successRecorder = successRecorder;
       this.resources = resources;
+      this.policy = policy;
     }
 
     @Override
     public T done() {
+      final long allocatedBytes = this.policy.startExecution();
+      try {
+        return doneExecution();
+      } finally {
+        this.policy.recordAllocation(AllocationMetrics.Phase.EXECUTION, allocatedBytes);
+      }
+    }
+
+    private T doneExecution() {
+      final long startTime = this.policy.startTime();
+      final boolean sampled = this.policy.samplePhases();
+      final ExecutionEvent event = FlightRecording.beginExecution();
       final T value;
       try {
-        value = this.valueProvider.get();
+        value = getValue();
       } catch (Throwable raisedException) {
-        return handleException(raisedException);
+        return handleException(raisedException, startTime, sampled, event);
       }
-      closeResources(this.resources);
+      closeResources(this.resources, this.policy, sampled);
+      this.successRecorder.accept(value);
+      this.policy.recordSuccess(startTime, event);
+      final long elseCallStartTime = this.policy.startPhase(sampled);
       this.onSuccessConsumer.accept(value);
+      this.policy.endPhase(sampled, TryMetrics.Phase.ELSE_CALL, elseCallStartTime);
       return value;
     }
 
-    private T handleException(Throwable raisedException) {
-      closeResources(this.resources);
-      Optional<IExceptionHandler<T>> first = this.exceptionsToBeHandled.stream()
-              .filter(exceptionHandler -> exceptionHandler.getThrowableClass().isInstance(raisedException))
-              .findFirst();
+    @SuppressWarnings("unchecked")
+    private T getValue() {
+      if (this.valueProvider instanceof MemoizedSupplier) {
+        return ((MemoizedSupplier<T>) this.valueProvider).get(this.policy, this::handleRefreshException);
+      }
 
-      if (first.isPresent()) {
-        return first.get().handleException(raisedException);
+      return this.policy.get(this.valueProvider);
+    }
+
+    private T handleException(final Throwable raisedException,
+                              final long startTime,
+                              final boolean sampled,
+                              final ExecutionEvent event) {
+      closeResources(this.resources, raisedException, this.policy, sampled);
+      IExceptionHandler<T> exceptionHandler = null;
+      int handlerIndex = 0;
+      for (; handlerIndex < this.exceptionsToBeHandled.size(); handlerIndex++) {
+        exceptionHandler = this.exceptionsToBeHandled.get(handlerIndex).handlerFor(raisedException);
+        if (exceptionHandler != null) {
+          break;
+        }
+      }
+
+      if (exceptionHandler == null) {
+        this.policy.recordRethrown(raisedException, startTime, event);
+        throw sneakyThrow(raisedException);
       }
 
-      throw sneakyThrow(raisedException);
+      final HandlerMatchEvent handlerMatchEvent = FlightRecording.beginHandlerMatch();
+      final long handlerStartTime = this.policy.startTime();
+      final long handlerAllocatedBytes = this.policy.allocatedBytes();
+      try {
+        return exceptionHandler.handleException(raisedException);
+      } finally {
+        this.policy.recordPhase(TryMetrics.Phase.HANDLER, handlerStartTime);
+        this.policy.recordAllocation(AllocationMetrics.Phase.HANDLER, handlerAllocatedBytes);
+        if (handlerMatchEvent != null) {
+          handlerMatchEvent.commit(
+                  this.policy.getName(), raisedException, this.exceptionsToBeHandled.get(handlerIndex), handlerIndex);
+        }
+        this.policy.recordHandled(raisedException, handlerIndex, startTime, event);
+      }
+    }
+
+    private void handleRefreshException(final Throwable refreshException) {
+      try {
+        for (IExceptionHandler<T> registeredExceptionHandler : this.exceptionsToBeHandled) {
+          final IExceptionHandler<T> exceptionHandler = registeredExceptionHandler.handlerFor(refreshException);
+          if (exceptionHandler != null) {
+            exceptionHandler.handleException(refreshException);
+            return;
+          }
+        }
+      } catch (Throwable throwable) {
+        // refresh runs in background, memoized value keeps being served and there is no caller to throw to
+      }
     }
 
     @Override
     public T finallyDone(final Callable finallyCallable) {
+      final long allocatedBytes = this.policy.startExecution();
+      try {
+        return finallyDoneExecution(finallyCallable);
+      } finally {
+        this.policy.recordAllocation(AllocationMetrics.Phase.EXECUTION, allocatedBytes);
+      }
+    }
+
+    private T finallyDoneExecution(final Callable finallyCallable) {
+      final long startTime = this.policy.startTime();
+      final boolean sampled = this.policy.samplePhases();
+      final ExecutionEvent event = FlightRecording.beginExecution();
       final T value;
       boolean success = false;
       try {
-        value = this.valueProvider.get();
+        value = getValue();
         success = true;
       } catch (Throwable raisedException) {
-        return handleException(raisedException);
+        return handleException(raisedException, startTime, sampled, event);
       } finally {
         if (success) {
-          closeResources(this.resources);
+          closeResources(this.resources, this.policy, sampled);
         }
+        final long finallyStartTime = this.policy.startPhase(sampled);
         executeCallable(finallyCallable);
+        this.policy.endPhase(sampled, TryMetrics.Phase.FINALLY, finallyStartTime);
       }
+      this.successRecorder.accept(value);
+      this.policy.recordSuccess(startTime, event);
+      final long elseCallStartTime = this.policy.startPhase(sampled);
       this.onSuccessConsumer.accept(value);
+      this.policy.endPhase(sampled, TryMetrics.Phase.ELSE_CALL, elseCallStartTime);
       return value;
     }
 
+    @Override
+    public <K> T singleFlightDone(final SingleFlight<K, T> singleFlight, final K key) {
+      return singleFlight.execute(key, this::done, () -> closeResources(this.resources, this.policy), this.policy);
+    }
+
     @Override
     public IExecutor<T> elseCall(final Consumer<T> onSuccessConsumer) {
       return new Executor<T>(
               this.valueProvider,
               this.exceptionsToBeHandled,
               onSuccessConsumer,
-              this.resources);
+              this.successRecorder,
+              this.resources,
+              this.policy);
     }
 
     @SuppressWarnings("unchecked")
@@ -215,7 +436,9 @@ class TryToGet<T> {
               this.valueProvider,
               asList(exceptionsToBeHandled),
               this.exceptionsToBeHandled,
-              this.resources);
+              this.successRecorder,
+              this.resources,
+              this.policy);
     }
   }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.thenakliman.tries;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+public class TryWithPolicy {
+  final private Policy policy;
+
+  public TryWithPolicy(final Policy policy) {
+    this.policy = policy;
+  }
+
+  public TryToCall toCall(final Callable callable) {
+    return new TryToCall(callable, new AutoCloseable[0], this.policy.startChain());
+  }
+
+  public <T> TryToGet<T> toGet(final Supplier<T> supplier) {
+    return new TryToGet<>(supplier, new AutoCloseable[0], this.policy.startChain());
+  }
+
+  public <T> TryToGet<T> toGetMemoized(final Supplier<T> supplier,
+                                       final Duration ttl,
+                                       final Executor refreshExecutor) {
+    return new TryToGet<>(
+            new MemoizedSupplier<>(supplier, ttl.toNanos(), refreshExecutor, System::nanoTime),
+            new AutoCloseable[0],
+            this.policy.startChain());
+  }
+
+  public TryWithResources withResources(final AutoCloseable... resources) {
+    return new TryWithResources(resources, this.policy.startChain());
+  }
+}
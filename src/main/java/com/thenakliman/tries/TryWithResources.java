@@ -4,16 +4,22 @@ import java.util.function.Supplier;
 
 public class TryWithResources {
   final private AutoCloseable[] resources;
+  final private Policy policy;
 
   public TryWithResources(final AutoCloseable[] resources) {
+    this(resources, Policy.NONE);
+  }
+
+  public TryWithResources(final AutoCloseable[] resources, final Policy policy) {
     this.resources = resources;
+    this.policy = policy;
   }
 
   public TryToCall toCall(final Callable callable) {
-    return new TryToCall(callable, this.resources);
+    return new TryToCall(callable, this.resources, this.policy);
   }
 
   public <T> TryToGet<T> toGet(Supplier<T> supplier) {
-    return new TryToGet<>(supplier, this.resources);
+    return new TryToGet<>(supplier, this.resources, this.policy);
   }
 }
@@ -1,10 +1,11 @@
 package com.thenakliman.tries;
 
-import java.util.stream.IntStream;
+import com.thenakliman.tries.internal.FlightRecording;
+import com.thenakliman.tries.internal.ResourceCloseEvent;
 
 import static com.thenakliman.tries.SneakyThrower.sneakyThrow;
 
-public class Utils {
+class Utils {
   static void executeCallable(final Callable callable) {
     try {
       callable.call();
@@ -13,17 +14,51 @@ public class Utils {
     }
   }
 
-  static void closeResources(final AutoCloseable[] resources) {
-    IntStream.rangeClosed(1, resources.length)
-            .mapToObj(i -> resources[resources.length - i])
-            .forEach(Utils::closeResource);
+  static void closeResources(final AutoCloseable[] resources, final Policy policy) {
+    closeResources(resources, null, policy);
   }
 
-  private static void closeResource(final AutoCloseable autoCloseable) {
+  static void closeResources(final AutoCloseable[] resources, final Throwable primaryFailure, final Policy policy) {
+    for (int i = resources.length - 1; i >= 0; i--) {
+      closeResource(resources[i], primaryFailure, policy);
+    }
+  }
+
+  static void closeResources(final AutoCloseable[] resources, final Policy policy, final boolean sampled) {
+    closeResources(resources, null, policy, sampled);
+  }
+
+  static void closeResources(final AutoCloseable[] resources,
+                             final Throwable primaryFailure,
+                             final Policy policy,
+                             final boolean sampled) {
+    final long startTime = policy.startPhase(sampled);
+    final long allocatedBytes = policy.allocatedBytes();
+    closeResources(resources, primaryFailure, policy);
+    policy.recordAllocation(AllocationMetrics.Phase.CLOSE, allocatedBytes);
+    policy.endPhase(sampled, TryMetrics.Phase.CLOSE, startTime);
+  }
+
+  private static void closeResource(final AutoCloseable autoCloseable,
+                                    final Throwable primaryFailure,
+                                    final Policy policy) {
+    final ResourceCloseEvent event = FlightRecording.beginResourceClose();
+    Throwable closeFailure = null;
     try {
       autoCloseable.close();
     } catch (Throwable throwable) {
-      // do nothing
+      closeFailure = throwable;
+    }
+
+    if (event != null) {
+      event.commit(autoCloseable, closeFailure);
+    }
+
+    if (closeFailure != null) {
+      policy.recordCloseFailure(autoCloseable, closeFailure);
+      if (primaryFailure != null && primaryFailure != closeFailure) {
+        primaryFailure.addSuppressed(closeFailure);
+      }
     }
   }
 
@@ -0,0 +1,13 @@
+package com.thenakliman.tries.internal;
+
+// replaced by src/java21 in META-INF/versions/21 of the multi-release jar
+public final class CurrentThread {
+  public final static long UNKNOWN_ALLOCATED_BYTES = -1;
+
+  private CurrentThread() {
+  }
+
+  public static long allocatedBytes(final com.sun.management.ThreadMXBean threadMXBean) {
+    return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+}
@@ -0,0 +1,39 @@
+package com.thenakliman.tries.internal;
+
+import com.thenakliman.tries.TryMetrics;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.thenakliman.tries.Execution")
+@Label("Guarded Execution")
+@Description("Execution of a Try chain from done() or finallyDone() till its outcome is known")
+@Category("Try")
+@Enabled(false)
+@StackTrace(false)
+public class ExecutionEvent extends Event {
+  @Label("Policy")
+  String policy;
+
+  @Label("Outcome")
+  String outcome;
+
+  @Label("Exception Class")
+  Class<?> exceptionClass;
+
+  public void commit(final String policyName,
+              final TryMetrics.Outcome outcome,
+              final Class<? extends Throwable> exceptionClass) {
+    end();
+    if (shouldCommit()) {
+      this.policy = policyName;
+      this.outcome = outcome.name();
+      this.exceptionClass = exceptionClass;
+      commit();
+    }
+  }
+}
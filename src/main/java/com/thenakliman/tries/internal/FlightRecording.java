@@ -0,0 +1,78 @@
+package com.thenakliman.tries.internal;
+
+public final class FlightRecording {
+  // any recording is running, events are created only when their own type is enabled in one of them
+  private static volatile boolean active = false;
+  // a recording can not run before the recorder is initialized, so registering the listener, which loads much of
+  // jdk.jfr, waits for the first event after that and is done by the thread creating it
+  private static volatile boolean registered = false;
+
+  private FlightRecording() {
+  }
+
+  private static boolean isActive() {
+    if (!registered && isRecorderInitialized()) {
+      register();
+    }
+
+    return active;
+  }
+
+  private static boolean isRecorderInitialized() {
+    try {
+      return RecordingStateListener.isRecorderInitialized();
+    } catch (Throwable throwable) {
+      // jdk.jfr is not available in this runtime, events are never emitted
+      registered = true;
+      return false;
+    }
+  }
+
+  private static synchronized void register() {
+    if (registered) {
+      return;
+    }
+
+    try {
+      RecordingStateListener.register();
+    } catch (Throwable throwable) {
+      // events are never emitted, as when jdk.jfr is not available
+    }
+
+    registered = true;
+  }
+
+  static void setActive(final boolean isActive) {
+    active = isActive;
+  }
+
+  public static ExecutionEvent beginExecution() {
+    if (!isActive() || !RecordingStateListener.isExecutionEnabled()) {
+      return null;
+    }
+
+    final ExecutionEvent event = new ExecutionEvent();
+    event.begin();
+    return event;
+  }
+
+  public static HandlerMatchEvent beginHandlerMatch() {
+    if (!isActive() || !RecordingStateListener.isHandlerMatchEnabled()) {
+      return null;
+    }
+
+    final HandlerMatchEvent event = new HandlerMatchEvent();
+    event.begin();
+    return event;
+  }
+
+  public static ResourceCloseEvent beginResourceClose() {
+    if (!isActive() || !RecordingStateListener.isResourceCloseEnabled()) {
+      return null;
+    }
+
+    final ResourceCloseEvent event = new ResourceCloseEvent();
+    event.begin();
+    return event;
+  }
+}
@@ -0,0 +1,43 @@
+package com.thenakliman.tries.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.thenakliman.tries.HandlerMatch")
+@Label("Handled Exception")
+@Description("Raised exception matched by a registered handler, duration is the time spent in the handler")
+@Category("Try")
+@Enabled(false)
+@StackTrace(false)
+public class HandlerMatchEvent extends Event {
+  @Label("Policy")
+  String policy;
+
+  @Label("Exception Class")
+  Class<?> exceptionClass;
+
+  @Label("Handler Type")
+  String handlerType;
+
+  @Label("Handler Index")
+  int handlerIndex;
+
+  public void commit(final String policyName,
+              final Throwable raisedException,
+              final Object handler,
+              final int handlerIndex) {
+    end();
+    if (shouldCommit()) {
+      this.policy = policyName;
+      this.exceptionClass = raisedException.getClass();
+      this.handlerType = handler.getClass().getSimpleName();
+      this.handlerIndex = handlerIndex;
+      commit();
+    }
+  }
+}
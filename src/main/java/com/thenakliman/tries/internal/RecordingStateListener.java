@@ -0,0 +1,53 @@
+package com.thenakliman.tries.internal;
+
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+class RecordingStateListener implements FlightRecorderListener {
+  private static EventType executionType;
+  private static EventType handlerMatchType;
+  private static EventType resourceCloseType;
+
+  static boolean isRecorderInitialized() {
+    return FlightRecorder.isInitialized();
+  }
+
+  // the event types are set before the listener reports a running recording
+  static void register() {
+    executionType = EventType.getEventType(ExecutionEvent.class);
+    handlerMatchType = EventType.getEventType(HandlerMatchEvent.class);
+    resourceCloseType = EventType.getEventType(ResourceCloseEvent.class);
+    FlightRecorder.addListener(new RecordingStateListener());
+  }
+
+  // read only while a recording is running, which the listener reports after the event types are set
+  static boolean isExecutionEnabled() {
+    return executionType.isEnabled();
+  }
+
+  static boolean isHandlerMatchEnabled() {
+    return handlerMatchType.isEnabled();
+  }
+
+  static boolean isResourceCloseEnabled() {
+    return resourceCloseType.isEnabled();
+  }
+
+  @Override
+  public void recorderInitialized(final FlightRecorder recorder) {
+    updateState(recorder);
+  }
+
+  @Override
+  public void recordingStateChanged(final Recording recording) {
+    updateState(FlightRecorder.getFlightRecorder());
+  }
+
+  private void updateState(final FlightRecorder recorder) {
+    FlightRecording.setActive(recorder.getRecordings().stream()
+            .anyMatch(recording -> recording.getState() == RecordingState.RUNNING));
+  }
+}
@@ -0,0 +1,36 @@
+package com.thenakliman.tries.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.thenakliman.tries.ResourceClose")
+@Label("Resource Close")
+@Description("Close of a resource registered with Try.withResources")
+@Category("Try")
+@Enabled(false)
+@StackTrace(false)
+public class ResourceCloseEvent extends Event {
+  @Label("Resource Class")
+  Class<?> resourceClass;
+
+  @Label("Failed")
+  boolean failed;
+
+  @Label("Failure Class")
+  Class<?> failureClass;
+
+  public void commit(final AutoCloseable resource, final Throwable failure) {
+    end();
+    if (shouldCommit()) {
+      this.resourceClass = resource.getClass();
+      this.failed = failure != null;
+      this.failureClass = failure == null ? null : failure.getClass();
+      commit();
+    }
+  }
+}
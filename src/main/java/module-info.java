@@ -0,0 +1,10 @@
+// only the fluent API and its policies and metrics are exported, the JFR events and the platform specific
+// classes of com.thenakliman.tries.internal are not. JFR and thread allocation counters are used when their
+// modules are in the image, so jlink images can leave them out
+module com.thenakliman.tries {
+  requires java.management;
+  requires static jdk.jfr;
+  requires static jdk.management;
+
+  exports com.thenakliman.tries;
+}
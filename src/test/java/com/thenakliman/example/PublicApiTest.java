@@ -0,0 +1,66 @@
+package com.thenakliman.example;
+
+import com.thenakliman.tries.Constant;
+import com.thenakliman.tries.Policy;
+import com.thenakliman.tries.Try;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+// chains built from outside of the library package, only the exported API is accessible here
+public class PublicApiTest {
+
+  @Test
+  public void try_toGetThenGet_returnHandlerValue_whenCalledFromAnotherPackage() {
+    Integer done = Try.<Integer>toGet(() -> {
+      throw new IllegalStateException("failed");
+    })
+            .ifRaises(IllegalArgumentException.class)
+            .thenGet((exception) -> 20)
+            .elseIfRaises(IllegalStateException.class)
+            .thenGet((exception) -> 30)
+            .finallyDone(Constant.DO_NOTHING);
+
+    assertThat(done, is(30));
+  }
+
+  @Test
+  public void try_withPolicyToCallThenCall_callElseCall_whenCalledFromAnotherPackage() {
+    AtomicInteger calls = new AtomicInteger();
+
+    Try.withPolicy(Policy.named("users"))
+            .toCall(Constant.DO_NOTHING)
+            .ifRaises(IllegalStateException.class)
+            .thenCall((exception) -> calls.addAndGet(10))
+            .elseCall(calls::incrementAndGet)
+            .done();
+    Try.toCall(Constant.DO_NOTHING).done();
+
+    assertThat(calls.get(), is(1));
+  }
+
+  @Test
+  public void try_withResourcesToGetThenThrow_closeResource_whenCalledFromAnotherPackage() {
+    AtomicInteger closes = new AtomicInteger();
+
+    try {
+      Try.withResources(closes::incrementAndGet)
+              .<Integer>toGet(() -> {
+                throw new IllegalStateException("failed");
+              })
+              .ifRaises(IllegalStateException.class)
+              .thenThrow(IOException::new)
+              .elseCall((value) -> closes.addAndGet(10))
+              .done();
+      fail("Expected to raise IOException");
+    } catch (Exception exception) {
+      assertThat(exception instanceof IOException, is(true));
+      assertThat(closes.get(), is(1));
+    }
+  }
+}
@@ -0,0 +1,266 @@
+package com.thenakliman.tries;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 20, Duration.ofMillis(100));
+  private final Policy policy = Policy.named("limited").withConcurrencyLimiter(limiter);
+
+  @Test
+  public void tryAcquire_returnFalse_whenLimitIsReached() {
+    for (int i = 0; i < 10; i++) {
+      assertThat(limiter.tryAcquire(), is(true));
+    }
+
+    assertThat(limiter.tryAcquire(), is(false));
+    assertThat(limiter.getInFlight(), is(10));
+  }
+
+  @Test
+  public void release_decreaseLimit_whenLatencyIsAboveThreshold() {
+    limiter.tryAcquire();
+    limiter.release(Duration.ofMillis(200).toNanos());
+
+    assertThat(limiter.getLimit(), is(9));
+    assertThat(limiter.getInFlight(), is(0));
+  }
+
+  @Test
+  public void release_doNotDecreaseLimitBelowMinimum_whenLatencyIsAboveThreshold() {
+    for (int i = 0; i < 100; i++) {
+      limiter.tryAcquire();
+      limiter.release(Duration.ofMillis(200).toNanos());
+    }
+
+    assertThat(limiter.getLimit(), is(2));
+  }
+
+  @Test
+  public void release_increaseLimit_whenLimitCallsAreBelowThresholdAndLimitIsUtilized() {
+    for (int i = 0; i < 5; i++) {
+      limiter.tryAcquire();
+    }
+    releaseFastCalls(9);
+    assertThat(limiter.getLimit(), is(10));
+
+    releaseFastCalls(1);
+    assertThat(limiter.getLimit(), is(11));
+  }
+
+  @Test
+  public void release_increaseLimitByOnePerWindow_whenManyCallsAreBelowThresholdAndLimitIsUtilized() {
+    for (int i = 0; i < 5; i++) {
+      limiter.tryAcquire();
+    }
+    releaseFastCalls(10 + 11 + 5);
+
+    assertThat(limiter.getLimit(), is(12));
+  }
+
+  @Test
+  public void release_restartWindow_whenLatencyIsAboveThreshold() {
+    for (int i = 0; i < 5; i++) {
+      limiter.tryAcquire();
+    }
+    releaseFastCalls(8);
+    limiter.tryAcquire();
+    limiter.release(Duration.ofMillis(200).toNanos());
+    releaseFastCalls(8);
+
+    assertThat(limiter.getLimit(), is(9));
+  }
+
+  @Test
+  public void release_doNotChangeLimit_whenLatencyIsBelowThresholdAndLimitIsNotUtilized() {
+    limiter.tryAcquire();
+    limiter.release(Duration.ofMillis(1).toNanos());
+
+    assertThat(limiter.getLimit(), is(10));
+  }
+
+  @Test
+  public void try_withPolicyToGetThenGet_returnGetValue_whenLimitIsNotReached() {
+    Integer done = Try.withPolicy(policy)
+            .toGet(() -> 10)
+            .ifRaises(ConcurrencyLimitExceededException.class)
+            .thenGet((exception) -> 20)
+            .done();
+
+    assertThat(done, is(10));
+    assertThat(limiter.getInFlight(), is(0));
+  }
+
+  @Test
+  public void try_withPolicyToGetThenGet_returnThenValue_whenLimitIsReached() {
+    TestHelper testHelper = mock(TestHelper.class);
+    fillLimit();
+
+    Integer done = Try.withPolicy(policy)
+            .toGet(testHelper::getValue)
+            .ifRaises(ConcurrencyLimitExceededException.class)
+            .thenGet((exception) -> 20)
+            .done();
+
+    assertThat(done, is(20));
+    verify(testHelper, never()).getValue();
+  }
+
+  @Test
+  public void try_withPolicyWithResourcesToGetThenGet_closeResources_whenLimitIsReached() throws Exception {
+    TryToCallWithResourcesR1R2Test.MyResource resource = mock(TryToCallWithResourcesR1R2Test.MyResource.class);
+    fillLimit();
+
+    Integer done = Try.withPolicy(policy)
+            .withResources(resource)
+            .toGet(() -> 10)
+            .ifRaises(ConcurrencyLimitExceededException.class)
+            .thenGet((exception) -> 20)
+            .done();
+
+    assertThat(done, is(20));
+    verify(resource).close();
+  }
+
+  @Test
+  public void try_withPolicyToCallThenCall_thenCalled_whenLimitIsReached() {
+    TestHelper testHelper = mock(TestHelper.class);
+    fillLimit();
+
+    Try.withPolicy(policy)
+            .toCall(testHelper::call)
+            .ifRaises(ConcurrencyLimitExceededException.class)
+            .thenCall((exception) -> testHelper.thenCallMe())
+            .done();
+
+    verify(testHelper, never()).call();
+    verify(testHelper).thenCallMe();
+  }
+
+  @Test
+  public void try_withPolicyToCall_throwConcurrencyLimitExceededException_whenLimitIsReached() {
+    fillLimit();
+
+    expectedException.expect(ConcurrencyLimitExceededException.class);
+    Try.withPolicy(policy)
+            .toCall(Constant.DO_NOTHING)
+            .done();
+  }
+
+  @Test
+  public void try_withPolicyToGet_releasePermit_whenExceptionIsRaised() {
+    Integer done = Try.withPolicy(policy)
+            .<Integer>toGet(() -> {
+              throw new IllegalArgumentException("failed");
+            })
+            .ifRaises(IllegalArgumentException.class)
+            .thenGet((exception) -> 20)
+            .done();
+
+    assertThat(done, is(20));
+    assertThat(limiter.getInFlight(), is(0));
+  }
+
+  @Test
+  public void simulation_limitConvergesToCapacityOfSlowService_whenOverloaded() throws Exception {
+    SlowService slowService = new SlowService(4, Duration.ofMillis(1));
+    AdaptiveConcurrencyLimiter adaptiveLimiter = new AdaptiveConcurrencyLimiter(32, 1, 64, Duration.ofMillis(3));
+    Policy slowServicePolicy = Policy.named("slow-service").withConcurrencyLimiter(adaptiveLimiter);
+    LongAdder shed = new LongAdder();
+    LongAdder served = new LongAdder();
+    long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+
+    ExecutorService clients = Executors.newFixedThreadPool(32);
+    List<Future<?>> results = new ArrayList<>();
+    for (int i = 0; i < 32; i++) {
+      results.add(clients.submit(() -> {
+        while (System.nanoTime() < end) {
+          Try.withPolicy(slowServicePolicy)
+                  .toCall(slowService::call)
+                  .ifRaises(ConcurrencyLimitExceededException.class)
+                  .thenCall((exception) -> shed.increment())
+                  .elseCall(served::increment)
+                  .done();
+        }
+      }));
+    }
+    for (Future<?> result : results) {
+      result.get(10, TimeUnit.SECONDS);
+    }
+    clients.shutdown();
+
+    assertThat(shed.sum(), greaterThan(0L));
+    assertThat(served.sum(), greaterThan(0L));
+    assertThat(adaptiveLimiter.getLimit(), lessThanOrEqualTo(12));
+    assertThat(adaptiveLimiter.getInFlight(), is(0));
+  }
+
+  private void releaseFastCalls(final int calls) {
+    for (int i = 0; i < calls; i++) {
+      limiter.tryAcquire();
+      limiter.release(Duration.ofMillis(1).toNanos());
+    }
+  }
+
+  private void fillLimit() {
+    while (limiter.tryAcquire()) {
+      // occupy every permit
+    }
+  }
+
+  static class SlowService {
+    final private int capacity;
+    final private long baseLatencyNanos;
+    final private AtomicInteger concurrentCalls = new AtomicInteger();
+
+    SlowService(final int capacity, final Duration baseLatency) {
+      this.capacity = capacity;
+      this.baseLatencyNanos = baseLatency.toNanos();
+    }
+
+    void call() throws InterruptedException {
+      int concurrent = concurrentCalls.incrementAndGet();
+      try {
+        long queued = (concurrent + capacity - 1) / capacity;
+        TimeUnit.NANOSECONDS.sleep(baseLatencyNanos * queued);
+      } finally {
+        concurrentCalls.decrementAndGet();
+      }
+    }
+  }
+
+  static class TestHelper {
+    Integer getValue() {
+      return 10;
+    }
+
+    void call() {
+      System.out.println("call me");
+    }
+
+    void thenCallMe() {
+      System.out.println("then call me");
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package com.thenakliman.tries;
+
+import com.thenakliman.tries.internal.CurrentThread;
+import org.junit.Test;
+
+import static com.thenakliman.tries.AllocationMetrics.Phase.CHAIN;
+import static com.thenakliman.tries.AllocationMetrics.Phase.CLOSE;
+import static com.thenakliman.tries.AllocationMetrics.Phase.EXECUTION;
+import static com.thenakliman.tries.AllocationMetrics.Phase.HANDLER;
+import static com.thenakliman.tries.AllocationMetrics.Phase.SUPPLIER;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class AllocationMetricsTest {
+  private static final int ONE_MEGABYTE = 1024 * 1024;
+
+  private final AllocationMetrics allocationMetrics = new AllocationMetrics();
+  private final Policy policy = Policy.named("users").withAllocationAccounting(allocationMetrics);
+
+  @Test
+  public void try_withPolicyToGetThenGet_accountSupplierAllocation_whenSupplierAllocates() {
+    Integer done = Try.withPolicy(policy)
+            .toGet(() -> new byte[ONE_MEGABYTE].length)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 0)
+            .done();
+
+    assertThat(done, is(ONE_MEGABYTE));
+    assertThat(allocationMetrics.getCount("users", SUPPLIER), is(1L));
+    assertThat(allocationMetrics.getAllocatedBytes("users", SUPPLIER), greaterThanOrEqualTo((long) ONE_MEGABYTE));
+    assertThat(allocationMetrics.getAllocatedBytes("users", EXECUTION), greaterThanOrEqualTo((long) ONE_MEGABYTE));
+    assertThat(allocationMetrics.getCount("users", HANDLER), is(0L));
+  }
+
+  @Test
+  public void try_withPolicyToGetThenGet_accountHandlerAllocation_whenHandlerAllocates() {
+    Try.withPolicy(policy)
+            .<Integer>toGet(() -> {
+              throw new IllegalStateException("failed");
+            })
+            .ifRaises(IllegalStateException.class)
+            .thenGet((exception) -> new byte[ONE_MEGABYTE].length)
+            .done();
+
+    assertThat(allocationMetrics.getAllocatedBytes("users", HANDLER), greaterThanOrEqualTo((long) ONE_MEGABYTE));
+    assertThat(allocationMetrics.getCount("users", SUPPLIER), is(1L));
+  }
+
+  @Test
+  public void try_withPolicyWithResourcesToCall_accountCloseAllocation_whenCloseAllocates() {
+    Try.withPolicy(policy)
+            .withResources(() -> {
+              byte[] buffer = new byte[ONE_MEGABYTE];
+              buffer[0] = 1;
+            })
+            .toCall(Constant.DO_NOTHING)
+            .ifRaises(RuntimeException.class)
+            .thenCall((exception) -> {
+            })
+            .done();
+
+    assertThat(allocationMetrics.getAllocatedBytes("users", CLOSE), greaterThanOrEqualTo((long) ONE_MEGABYTE));
+    assertThat(allocationMetrics.getAverageAllocatedBytes("users", CLOSE) >= ONE_MEGABYTE, is(true));
+  }
+
+  @Test
+  public void try_withPolicyToGetThenGet_accountChainBuildingOnce_whenExecutorIsReused() {
+    TryToGet.Executor<Integer> executor = Try.withPolicy(policy)
+            .toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 0);
+
+    executor.done();
+    executor.done();
+    executor.finallyDone(Constant.DO_NOTHING);
+
+    assertThat(allocationMetrics.getCount("users", CHAIN), is(1L));
+    assertThat(allocationMetrics.getCount("users", EXECUTION), is(3L));
+  }
+
+  @Test
+  public void try_withPolicyToGetThenGet_doNotAccountChainBuilding_whenExecutorIsDoneOnOtherThread() throws Exception {
+    TryToGet.Executor<Integer> executor = Try.withPolicy(policy)
+            .toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 0);
+
+    Thread thread = new Thread(executor::done);
+    thread.start();
+    thread.join();
+    executor.done();
+
+    assertThat(allocationMetrics.getCount("users", CHAIN), is(0L));
+    assertThat(allocationMetrics.getCount("users", EXECUTION), is(2L));
+  }
+
+  @Test
+  public void try_withPolicyToCall_accountChainBuilding_whenChainIsDone() {
+    Try.withPolicy(policy)
+            .toCall(Constant.DO_NOTHING)
+            .ifRaises(RuntimeException.class)
+            .thenCall((exception) -> {
+            })
+            .done();
+
+    assertThat(allocationMetrics.getCount("users", CHAIN), is(1L));
+    assertThat(allocationMetrics.getAllocatedBytes("users", CHAIN) > 0, is(true));
+  }
+
+  @Test
+  public void try_withPolicyToCall_doNotAccount_whenAccountingIsNotEnabled() {
+    Try.withPolicy(Policy.named("orders"))
+            .toCall(Constant.DO_NOTHING)
+            .done();
+
+    assertThat(allocationMetrics.getPolicyNames().isEmpty(), is(true));
+  }
+
+  @Test
+  public void record_skip_whenAllocatedBytesOfThreadAreUnknown() {
+    allocationMetrics.record("users", SUPPLIER, CurrentThread.UNKNOWN_ALLOCATED_BYTES, 100);
+    allocationMetrics.record("users", SUPPLIER, 100, CurrentThread.UNKNOWN_ALLOCATED_BYTES);
+    allocationMetrics.record("users", SUPPLIER, 100, 300);
+
+    assertThat(allocationMetrics.getCount("users", SUPPLIER), is(1L));
+    assertThat(allocationMetrics.getAllocatedBytes("users", SUPPLIER), is(200L));
+  }
+}
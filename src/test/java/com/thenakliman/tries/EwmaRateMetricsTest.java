@@ -0,0 +1,235 @@
+package com.thenakliman.tries;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.thenakliman.tries.RateAnomalyListener.Anomaly.DEVIATION;
+import static com.thenakliman.tries.RateAnomalyListener.Anomaly.THRESHOLD_CROSSED;
+import static com.thenakliman.tries.TryMetrics.Outcome.HANDLED;
+import static com.thenakliman.tries.TryMetrics.Outcome.SUCCESS;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class EwmaRateMetricsTest {
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  private final AtomicLong clock = new AtomicLong();
+  private final RateAnomalyListener listener = mock(RateAnomalyListener.class);
+  private final EwmaRateMetrics metrics = new EwmaRateMetrics(0.5, 3, listener, Runnable::run, clock::get);
+
+  @Test
+  public void try_withPolicyToGetThenGet_measureCallAndFailureRates_whenIntervalHasPassed() {
+    Policy policy = Policy.named("users").withMetrics(metrics);
+    for (int i = 0; i < 40; i++) {
+      Try.withPolicy(policy)
+              .toGet(() -> 10)
+              .ifRaises(RuntimeException.class)
+              .thenGet((exception) -> 20)
+              .done();
+    }
+    for (int i = 0; i < 10; i++) {
+      Try.withPolicy(policy)
+              .<Integer>toGet(() -> {
+                throw new IllegalStateException("failed");
+              })
+              .ifRaises(IllegalStateException.class)
+              .thenGet((exception) -> 20)
+              .done();
+    }
+    tick();
+    Try.withPolicy(policy).toCall(Constant.DO_NOTHING).done();
+
+    assertThat(metrics.getCallRate("users"), closeTo(10, 0.001));
+    assertThat(metrics.getFailureRate("users", IllegalStateException.class), closeTo(2, 0.001));
+    assertThat(metrics.getFailureRatio("users", IllegalStateException.class), closeTo(0.2, 0.001));
+  }
+
+  @Test
+  public void record_decayRates_whenNoCallIsMadeForSeveralIntervals() {
+    record(50, 0);
+    tick();
+    record(1, 0);
+    double rateAfterFirstInterval = metrics.getCallRate("users");
+
+    clock.addAndGet(TimeUnit.MINUTES.toNanos(5));
+    record(1, 0);
+
+    assertThat(metrics.getCallRate("users") < rateAfterFirstInterval / 2, is(true));
+  }
+
+  @Test
+  public void record_notifyListenerOnce_whenFailureRatioCrossesThreshold() {
+    for (int i = 0; i < 5; i++) {
+      record(10, 90);
+      tick();
+    }
+    record(1, 0);
+
+    verify(listener, times(1)).onAnomaly(
+            eq("users"), eq(IOException.class), eq(THRESHOLD_CROSSED), anyDouble(), anyDouble());
+  }
+
+  @Test
+  public void record_notifyListener_whenFailureRatioDeviatesFromBaseline() {
+    for (int i = 0; i < 100; i++) {
+      record(99, 1);
+      tick();
+    }
+    for (int i = 0; i < 10; i++) {
+      record(60, 40);
+      tick();
+    }
+    record(1, 0);
+
+    verify(listener).onAnomaly(eq("users"), eq(IOException.class), eq(DEVIATION), anyDouble(), anyDouble());
+    verify(listener, never()).onAnomaly(
+            eq("users"), eq(IOException.class), eq(THRESHOLD_CROSSED), anyDouble(), anyDouble());
+  }
+
+  @Test
+  public void record_notifyListener_whenNewExceptionClassAppearsAfterBaselineIsFormed() {
+    for (int i = 0; i < 240; i++) {
+      record(100, 0);
+      tick();
+    }
+    for (int i = 0; i < 24; i++) {
+      record(90, 0);
+      recordFailures(10, IllegalStateException.class);
+      tick();
+    }
+    record(1, 0);
+
+    verify(listener).onAnomaly(
+            eq("users"), eq(IllegalStateException.class), eq(DEVIATION), anyDouble(), anyDouble());
+    assertThat(metrics.getBaselineFailureRatio("users", IllegalStateException.class) < 0.05, is(true));
+  }
+
+  @Test
+  public void getCallRate_decayRates_whenNoCallIsMade() {
+    record(50, 0);
+    tick();
+    record(1, 0);
+    double rateAfterFirstInterval = metrics.getCallRate("users");
+
+    clock.addAndGet(TimeUnit.MINUTES.toNanos(5));
+
+    assertThat(metrics.getCallRate("users") < rateAfterFirstInterval / 2, is(true));
+  }
+
+  @Test
+  public void record_doNotNotifyListener_whenFailureRatioIsSteady() {
+    for (int i = 0; i < 100; i++) {
+      record(90, 10);
+      tick();
+    }
+    record(1, 0);
+
+    verifyNoInteractions(listener);
+    assertThat(metrics.getBaselineFailureRatio("users", IOException.class), closeTo(0.1, 0.01));
+  }
+
+  @Test
+  public void record_doNotNotifyListener_whenFailuresDeviateFromNearZeroBaselineBySmallDelta() {
+    record(100_000, 1);
+    tick();
+    for (int i = 0; i < 100; i++) {
+      record(100_000, 0);
+      tick();
+    }
+    for (int i = 0; i < 10; i++) {
+      record(100_000, 5);
+      tick();
+    }
+    record(1, 0);
+
+    verifyNoInteractions(listener);
+  }
+
+  @Test
+  public void record_notifyListenerOnListenerExecutor_whenFailureRatioCrossesThreshold() {
+    List<Runnable> notifications = new ArrayList<>();
+    EwmaRateMetrics asyncMetrics = new EwmaRateMetrics(0.5, 3, listener, notifications::add, clock::get);
+    for (int i = 0; i < 10; i++) {
+      asyncMetrics.record("users", HANDLED, IOException.class, 0, 0);
+    }
+    tick();
+    asyncMetrics.record("users", SUCCESS, null, TryMetrics.NO_HANDLER, 0);
+
+    verifyNoInteractions(listener);
+    assertThat(notifications.size(), is(1));
+
+    notifications.get(0).run();
+    verify(listener).onAnomaly(eq("users"), eq(IOException.class), eq(THRESHOLD_CROSSED), anyDouble(), anyDouble());
+  }
+
+  @Test
+  public void record_keepRecording_whenListenerExecutorRejectsNotification() {
+    EwmaRateMetrics rejectingMetrics = new EwmaRateMetrics(0.5, 3, listener, (notification) -> {
+      throw new RejectedExecutionException("shut down");
+    }, clock::get);
+    for (int i = 0; i < 10; i++) {
+      rejectingMetrics.record("users", HANDLED, IOException.class, 0, 0);
+    }
+    tick();
+    rejectingMetrics.record("users", SUCCESS, null, TryMetrics.NO_HANDLER, 0);
+
+    assertThat(rejectingMetrics.getFailureRatio("users", IOException.class), closeTo(1, 0.001));
+  }
+
+  @Test
+  public void record_keepRecording_whenListenerFails() {
+    doThrow(new IllegalStateException("listener failed")).when(listener)
+            .onAnomaly(eq("users"), eq(IOException.class), eq(THRESHOLD_CROSSED), anyDouble(), anyDouble());
+
+    record(0, 10);
+    tick();
+    record(1, 0);
+
+    assertThat(metrics.getFailureRatio("users", IOException.class), closeTo(1, 0.001));
+  }
+
+  @Test
+  public void getCallRate_returnZero_whenPolicyIsUnknown() {
+    assertThat(metrics.getCallRate("orders"), is(0.0));
+    assertThat(metrics.getFailureRatio("orders", IOException.class), is(0.0));
+  }
+
+  @Test
+  public void constructor_throwIllegalArgumentException_whenDeviationFactorIsNotGreaterThanOne() {
+    expectedException.expect(IllegalArgumentException.class);
+    new EwmaRateMetrics(0.5, 1, listener, Runnable::run);
+  }
+
+  private void record(final int successes, final int failures) {
+    for (int i = 0; i < successes; i++) {
+      metrics.record("users", SUCCESS, null, TryMetrics.NO_HANDLER, 0);
+    }
+    for (int i = 0; i < failures; i++) {
+      metrics.record("users", HANDLED, IOException.class, 0, 0);
+    }
+  }
+
+  private void recordFailures(final int failures, final Class<? extends Throwable> exceptionClass) {
+    for (int i = 0; i < failures; i++) {
+      metrics.record("users", HANDLED, exceptionClass, 0, 0);
+    }
+  }
+
+  private void tick() {
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+  }
+}
@@ -0,0 +1,186 @@
+package com.thenakliman.tries;
+
+import com.thenakliman.tries.internal.FlightRecording;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FlightRecordingEventsTest {
+  private static final String EXECUTION = "com.thenakliman.tries.Execution";
+  private static final String HANDLER_MATCH = "com.thenakliman.tries.HandlerMatch";
+  private static final String RESOURCE_CLOSE = "com.thenakliman.tries.ResourceClose";
+
+  private final Policy policy = Policy.named("users");
+  private Recording recording;
+  private Path recordingFile;
+
+  @Before
+  public void startRecording() throws IOException {
+    recordingFile = Files.createTempFile("try-events", ".jfr");
+    recording = new Recording();
+    recording.enable(EXECUTION);
+    recording.enable(HANDLER_MATCH);
+    recording.enable(RESOURCE_CLOSE);
+    recording.start();
+  }
+
+  @After
+  public void closeRecording() throws IOException {
+    recording.close();
+    Files.deleteIfExists(recordingFile);
+  }
+
+  @Test
+  public void try_withPolicyToGetThenGet_emitExecutionEvent_whenExceptionIsNotRaised() throws IOException {
+    Try.withPolicy(policy)
+            .toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .done();
+
+    List<RecordedEvent> events = stopAndRead(EXECUTION);
+    assertThat(events.size(), is(1));
+    assertThat(events.get(0).getString("policy"), is("users"));
+    assertThat(events.get(0).getString("outcome"), is("SUCCESS"));
+  }
+
+  @Test
+  public void try_withPolicyToGetThenGet_emitHandlerMatchEvent_whenExceptionIsRaised() throws IOException {
+    Try.withPolicy(policy)
+            .<Integer>toGet(() -> {
+              throw new IllegalStateException("failed");
+            })
+            .ifRaises(IllegalArgumentException.class)
+            .thenGet((exception) -> 20)
+            .elseIfRaises(IllegalStateException.class)
+            .thenGet((exception) -> 30)
+            .done();
+
+    List<RecordedEvent> executions = stopAndRead(EXECUTION);
+    assertThat(executions.size(), is(1));
+    assertThat(executions.get(0).getString("outcome"), is("HANDLED"));
+    assertThat(className(executions.get(0), "exceptionClass"), is(IllegalStateException.class.getName()));
+
+    List<RecordedEvent> handlerMatches = read(HANDLER_MATCH);
+    assertThat(handlerMatches.size(), is(1));
+    assertThat(handlerMatches.get(0).getString("handlerType"), is("ExceptionConsumer"));
+    assertThat(handlerMatches.get(0).getInt("handlerIndex"), is(1));
+  }
+
+  @Test
+  public void try_toCallThenThrow_emitExecutionAndHandlerMatchEvents_whenExceptionIsTranslated() throws IOException {
+    try {
+      Try.toCall(() -> {
+        throw new IllegalStateException("failed");
+      })
+              .ifRaises(IllegalStateException.class)
+              .thenThrow((exception) -> new IllegalArgumentException())
+              .done();
+    } catch (IllegalArgumentException exception) {
+      // expected
+    }
+
+    assertThat(stopAndRead(EXECUTION).get(0).getString("outcome"), is("HANDLED"));
+    assertThat(read(HANDLER_MATCH).get(0).getString("handlerType"), is("ExceptionThrower"));
+  }
+
+  @Test
+  public void try_withResourcesToGetThenGet_emitResourceCloseEvents_whenResourcesAreClosed() throws IOException {
+    Try.withResources(new Resource(), new FailingResource())
+            .toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .done();
+
+    List<RecordedEvent> closes = stopAndRead(RESOURCE_CLOSE);
+    assertThat(closes.size(), is(2));
+    assertThat(className(closes.get(0), "resourceClass"), is(FailingResource.class.getName()));
+    assertThat(closes.get(0).getBoolean("failed"), is(true));
+    assertThat(className(closes.get(0), "failureClass"), is(IOException.class.getName()));
+    assertThat(className(closes.get(1), "resourceClass"), is(Resource.class.getName()));
+    assertThat(closes.get(1).getBoolean("failed"), is(false));
+  }
+
+  @Test
+  public void try_toGetThenGet_doNotEmitEvents_whenEventsAreNotEnabled() throws IOException {
+    recording.disable(EXECUTION);
+
+    Try.toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .done();
+
+    assertThat(stopAndRead(EXECUTION).size(), is(0));
+  }
+
+  @Test
+  public void flightRecording_doNotCreateEvents_whenOnlyOtherEventsAreRecorded() {
+    recording.disable(EXECUTION);
+    recording.disable(HANDLER_MATCH);
+    recording.disable(RESOURCE_CLOSE);
+
+    assertThat(FlightRecording.beginExecution() == null, is(true));
+    assertThat(FlightRecording.beginHandlerMatch() == null, is(true));
+    assertThat(FlightRecording.beginResourceClose() == null, is(true));
+  }
+
+  @Test
+  public void flightRecording_createEvents_whenTheyAreRecorded() {
+    assertThat(FlightRecording.beginExecution() == null, is(false));
+    assertThat(FlightRecording.beginHandlerMatch() == null, is(false));
+    assertThat(FlightRecording.beginResourceClose() == null, is(false));
+  }
+
+  @Test
+  public void flightRecording_doNotCreateEvents_whenRecordingIsStopped() {
+    assertThat(FlightRecording.beginExecution() == null, is(false));
+
+    recording.stop();
+
+    assertThat(FlightRecording.beginExecution() == null, is(true));
+  }
+
+  private List<RecordedEvent> stopAndRead(final String eventName) throws IOException {
+    recording.stop();
+    recording.dump(recordingFile);
+    return read(eventName);
+  }
+
+  private List<RecordedEvent> read(final String eventName) throws IOException {
+    return RecordingFile.readAllEvents(recordingFile).stream()
+            .filter(event -> event.getEventType().getName().equals(eventName))
+            .sorted((first, second) -> first.getStartTime().compareTo(second.getStartTime()))
+            .collect(Collectors.toList());
+  }
+
+  private static String className(final RecordedEvent event, final String field) {
+    return event.<RecordedClass>getValue(field).getName();
+  }
+
+  static class Resource implements AutoCloseable {
+    @Override
+    public void close() {
+      // nothing to close
+    }
+  }
+
+  static class FailingResource implements AutoCloseable {
+    @Override
+    public void close() throws IOException {
+      throw new IOException("failed to flush");
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package com.thenakliman.tries;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.thenakliman.tries.TryMetrics.Outcome.HANDLED;
+import static com.thenakliman.tries.TryMetrics.Outcome.RETHROWN;
+import static com.thenakliman.tries.TryMetrics.Outcome.SUCCESS;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class HeavyHitterMetricsTest {
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  private final AtomicLong clock = new AtomicLong();
+  private final HeavyHitterMetrics metrics = new HeavyHitterMetrics(4, Duration.ofMinutes(1), clock::get);
+
+  @Test
+  public void try_withPolicyToGetThenGet_trackRaisedExceptions_whenExceptionIsHandled() {
+    Policy policy = Policy.named("users").withMetrics(metrics);
+    for (int i = 0; i < 3; i++) {
+      Try.withPolicy(policy)
+              .<Integer>toGet(() -> {
+                throw new IllegalStateException("failed");
+              })
+              .ifRaises(IllegalStateException.class)
+              .thenGet((exception) -> 20)
+              .done();
+    }
+    Try.withPolicy(policy).toCall(Constant.DO_NOTHING).done();
+
+    List<HeavyHitterMetrics.HeavyHitter> topK = metrics.getTopK(10);
+    assertThat(topK.size(), is(1));
+    assertThat(topK.get(0).getPolicyName(), is("users"));
+    assertThat(topK.get(0).getExceptionClass().equals(IllegalStateException.class), is(true));
+    assertThat(topK.get(0).getCount(), is(3L));
+  }
+
+  @Test
+  public void getTopK_returnMostFrequentPairsFirst_whenPairsAreRecorded() {
+    record("users", IOException.class, 50);
+    record("orders", IOException.class, 30);
+    record("users", IllegalStateException.class, 10);
+
+    List<HeavyHitterMetrics.HeavyHitter> topK = metrics.getTopK(2);
+    assertThat(topK.size(), is(2));
+    assertThat(topK.get(0).getPolicyName(), is("users"));
+    assertThat(topK.get(0).getCount(), is(50L));
+    assertThat(topK.get(1).getPolicyName(), is("orders"));
+    assertThat(topK.get(1).getCount(), is(30L));
+  }
+
+  @Test
+  public void getTopK_keepHeavyHitters_whenCardinalityExceedsCapacity() {
+    record("users", IOException.class, 100);
+    record("orders", IOException.class, 80);
+    for (int i = 0; i < 100; i++) {
+      record("policy-" + i, IllegalStateException.class, 1);
+    }
+
+    List<HeavyHitterMetrics.HeavyHitter> topK = metrics.getTopK(2);
+    assertThat(topK.get(0).getPolicyName(), is("users"));
+    assertThat(topK.get(0).getCount(), greaterThanOrEqualTo(100L));
+    assertThat(topK.get(1).getPolicyName(), is("orders"));
+    assertThat(metrics.getTopK(1000).size(), is(4));
+  }
+
+  @Test
+  public void getTopK_forgetExceptions_whenTheyAreOutsideTheWindow() {
+    record("users", IOException.class, 50);
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+    record("orders", IOException.class, 10);
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(40));
+
+    List<HeavyHitterMetrics.HeavyHitter> topK = metrics.getTopK(10);
+    assertThat(topK.size(), is(1));
+    assertThat(topK.get(0).getPolicyName(), is("orders"));
+  }
+
+  @Test
+  public void getTopK_mergeBuckets_whenExceptionsAreSpreadOverTheWindow() {
+    record("users", IOException.class, 5);
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(20));
+    record("users", IOException.class, 5);
+
+    assertThat(metrics.getTopK(1).get(0).getCount(), is(10L));
+  }
+
+  @Test
+  public void getTopK_replaceSmallestCounter_whenNewPairArrivesAtCapacity() {
+    HeavyHitterMetrics smallMetrics = new HeavyHitterMetrics(2, Duration.ofMinutes(1), clock::get);
+    for (int i = 0; i < 3; i++) {
+      smallMetrics.record("users", HANDLED, IOException.class, 0, 0);
+    }
+    smallMetrics.record("orders", HANDLED, IOException.class, 0, 0);
+    smallMetrics.record("payments", HANDLED, IOException.class, 0, 0);
+
+    List<HeavyHitterMetrics.HeavyHitter> topK = smallMetrics.getTopK(10);
+    assertThat(topK.size(), is(2));
+    assertThat(topK.get(0).getPolicyName(), is("users"));
+    assertThat(topK.get(0).getCount(), is(3L));
+    assertThat(topK.get(0).getError(), is(0L));
+    assertThat(topK.get(1).getPolicyName(), is("payments"));
+    assertThat(topK.get(1).getCount(), is(2L));
+    assertThat(topK.get(1).getError(), is(1L));
+  }
+
+  @Test
+  public void getTopK_countExactly_whenCardinalityIsWithinCapacity() {
+    HeavyHitterMetrics largeMetrics = new HeavyHitterMetrics(8, Duration.ofMinutes(1), clock::get);
+    long[] expected = new long[8];
+    Random random = new Random(42);
+    for (int i = 0; i < 10_000; i++) {
+      int policy = random.nextInt(8) * random.nextInt(8) / 7;
+      expected[policy]++;
+      largeMetrics.record("policy-" + policy, HANDLED, IOException.class, 0, 0);
+    }
+
+    for (HeavyHitterMetrics.HeavyHitter heavyHitter : largeMetrics.getTopK(8)) {
+      int policy = Integer.parseInt(heavyHitter.getPolicyName().substring("policy-".length()));
+      assertThat(heavyHitter.getCount(), is(expected[policy]));
+      assertThat(heavyHitter.getError(), is(0L));
+    }
+  }
+
+  @Test
+  public void getTopK_mergeThreads_whenExceptionsAreRecordedConcurrently() throws Exception {
+    ExecutorService recorders = Executors.newFixedThreadPool(4);
+    List<Future<?>> results = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      results.add(recorders.submit(() -> record("users", IOException.class, 1000)));
+    }
+    for (Future<?> result : results) {
+      result.get(10, TimeUnit.SECONDS);
+    }
+    recorders.shutdown();
+
+    assertThat(metrics.getTopK(1).get(0).getCount(), is(4000L));
+  }
+
+  @Test
+  public void record_ignoreSuccess_whenNoExceptionIsRaised() {
+    metrics.record("users", SUCCESS, null, TryMetrics.NO_HANDLER, 0);
+
+    assertThat(metrics.getTopK(10).size(), is(0));
+  }
+
+  @Test
+  public void constructor_throwIllegalArgumentException_whenCapacityIsNotPositive() {
+    expectedException.expect(IllegalArgumentException.class);
+    new HeavyHitterMetrics(0, Duration.ofMinutes(1));
+  }
+
+  private void record(final String policyName, final Class<? extends Throwable> exceptionClass, final int times) {
+    for (int i = 0; i < times; i++) {
+      metrics.record(policyName, i % 2 == 0 ? HANDLED : RETHROWN, exceptionClass, 0, 0);
+    }
+  }
+}
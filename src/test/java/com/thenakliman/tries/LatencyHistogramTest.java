@@ -0,0 +1,164 @@
+package com.thenakliman.tries;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+public class LatencyHistogramTest {
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  private final LatencyHistogram histogram = new LatencyHistogram();
+
+  @Test
+  public void indexOf_keepValueInsideBucket_whenValueIsRecorded() {
+    long[] values = {0, 1, 15, 16, 17, 31, 32, 1_000, 123_456_789, Long.MAX_VALUE};
+    for (long value : values) {
+      int index = LatencyHistogram.indexOf(value);
+      assertThat(LatencyHistogram.lowestValueAt(index), lessThanOrEqualTo(value));
+      assertThat(LatencyHistogram.highestValueAt(index), greaterThanOrEqualTo(value));
+    }
+  }
+
+  @Test
+  public void getPercentile_returnValueWithinRelativeError_whenValuesAreRecorded() {
+    for (long i = 1; i <= 1000; i++) {
+      histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+    }
+
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    assertThat(snapshot.getCount(), is(1000L));
+    assertWithinRelativeError(snapshot.getPercentile(50), TimeUnit.MICROSECONDS.toNanos(500));
+    assertWithinRelativeError(snapshot.getPercentile(99), TimeUnit.MICROSECONDS.toNanos(990));
+    assertWithinRelativeError(snapshot.getMax(), TimeUnit.MICROSECONDS.toNanos(1000));
+    assertWithinRelativeError(snapshot.getMin(), TimeUnit.MICROSECONDS.toNanos(1));
+    assertWithinRelativeError((long) snapshot.getMean(), TimeUnit.MICROSECONDS.toNanos(500));
+  }
+
+  @Test
+  public void getPercentile_returnZero_whenNothingIsRecorded() {
+    assertThat(histogram.snapshot().getPercentile(99), is(0L));
+    assertThat(histogram.snapshot().getMax(), is(0L));
+  }
+
+  @Test
+  public void getPercentile_throwIllegalArgumentException_whenPercentileIsOutOfRange() {
+    expectedException.expect(IllegalArgumentException.class);
+    histogram.snapshot().getPercentile(101);
+  }
+
+  @Test
+  public void record_recordZero_whenLatencyIsNegative() {
+    histogram.record(-5);
+
+    assertThat(histogram.snapshot().getMax(), is(0L));
+    assertThat(histogram.snapshot().getCount(), is(1L));
+  }
+
+  @Test
+  public void snapshotAndReset_clearHistogram_whenSnapshotIsTaken() {
+    histogram.record(100);
+    histogram.record(200);
+
+    assertThat(histogram.snapshotAndReset().getCount(), is(2L));
+    assertThat(histogram.snapshot().getCount(), is(0L));
+  }
+
+  @Test
+  public void record_countEveryValue_whenRecordedConcurrently() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<?>> results = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      results.add(executor.submit(() -> {
+        for (int value = 0; value < 10_000; value++) {
+          histogram.record(value);
+        }
+      }));
+    }
+    for (Future<?> result : results) {
+      result.get(10, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+
+    assertThat(histogram.snapshot().getCount(), is(80_000L));
+  }
+
+  @Test
+  public void try_withPolicyToGetThenGet_recordSupplierAndTotalTime_whenExceptionIsNotRaised() {
+    LatencyHistogramMetrics metrics = new LatencyHistogramMetrics();
+    Try.withPolicy(Policy.named("users").withMetrics(metrics))
+            .toGet(() -> {
+              sleep(2);
+              return 10;
+            })
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .done();
+
+    assertThat(metrics.getSupplierHistogram("users").snapshot().getCount(), is(1L));
+    assertThat(metrics.getSupplierHistogram("users").snapshot().getMax(), greaterThanOrEqualTo(2_000_000L));
+    assertThat(metrics.getTotalHistogram("users").snapshot().getCount(), is(1L));
+    assertThat(metrics.getHandlerHistogram("users").snapshot().getCount(), is(0L));
+  }
+
+  @Test
+  public void try_withPolicyToGetThenGet_recordHandlerTime_whenExceptionIsHandled() {
+    LatencyHistogramMetrics metrics = new LatencyHistogramMetrics();
+    Try.withPolicy(Policy.named("users").withMetrics(metrics))
+            .<Integer>toGet(() -> {
+              throw new IllegalStateException("failed");
+            })
+            .ifRaises(IllegalStateException.class)
+            .thenGet((exception) -> {
+              sleep(2);
+              return 20;
+            })
+            .done();
+
+    assertThat(metrics.getHandlerHistogram("users").snapshot().getMax(), greaterThanOrEqualTo(2_000_000L));
+    assertThat(metrics.getTotalHistogram("users").snapshot().getMax(), greaterThanOrEqualTo(2_000_000L));
+    assertThat(metrics.getSupplierHistogram("users").snapshot().getCount(), is(1L));
+  }
+
+  @Test
+  public void try_withPolicyToCallThenCall_recordHandlerTime_whenExceptionIsHandled() {
+    LatencyHistogramMetrics metrics = new LatencyHistogramMetrics();
+    Try.withPolicy(Policy.named("orders").withMetrics(metrics))
+            .toCall(() -> {
+              throw new IllegalStateException("failed");
+            })
+            .ifRaises(IllegalStateException.class)
+            .thenCall((exception) -> {
+            })
+            .done();
+
+    assertThat(metrics.getHandlerHistogram("orders").snapshot().getCount(), is(1L));
+    assertThat(metrics.getTotalHistogram("orders").snapshot().getCount(), is(1L));
+    assertThat(metrics.getPolicyNames().contains("orders"), is(true));
+  }
+
+  private static void assertWithinRelativeError(final long actual, final long expected) {
+    assertThat(Math.abs(actual - expected) <= expected / 16, is(true));
+  }
+
+  private static void sleep(final long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package com.thenakliman.tries;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static com.thenakliman.tries.TryMetrics.Phase.CLOSE;
+import static com.thenakliman.tries.TryMetrics.Phase.ELSE_CALL;
+import static com.thenakliman.tries.TryMetrics.Phase.FINALLY;
+import static com.thenakliman.tries.TryMetrics.Phase.HANDLER;
+import static com.thenakliman.tries.TryMetrics.Phase.SUPPLIER;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class PhaseTimingTest {
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  private final TryMetrics metrics = mock(TryMetrics.class);
+  private final Policy policy = Policy.named("users").withMetrics(metrics).withPhaseTiming(1);
+
+  @Test
+  public void try_withPolicyWithResourcesToGetThenGet_recordEveryPhase_whenExceptionIsNotRaised() {
+    Try.withPolicy(policy)
+            .withResources(new FlightRecordingEventsTest.Resource())
+            .toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .elseCall((value) -> {
+            })
+            .finallyDone(Constant.DO_NOTHING);
+
+    verify(metrics).recordPhase(eq("users"), eq(SUPPLIER), anyLong());
+    verify(metrics).recordPhase(eq("users"), eq(CLOSE), anyLong());
+    verify(metrics).recordPhase(eq("users"), eq(FINALLY), anyLong());
+    verify(metrics).recordPhase(eq("users"), eq(ELSE_CALL), anyLong());
+    verify(metrics, never()).recordPhase(eq("users"), eq(HANDLER), anyLong());
+  }
+
+  @Test
+  public void try_withPolicyToCallThenCall_recordHandlerAndClosePhases_whenExceptionIsHandled() {
+    Try.withPolicy(policy)
+            .withResources(new FlightRecordingEventsTest.Resource())
+            .toCall(() -> {
+              throw new IllegalStateException("failed");
+            })
+            .ifRaises(IllegalStateException.class)
+            .thenCall((exception) -> {
+            })
+            .finallyDone(Constant.DO_NOTHING);
+
+    verify(metrics).recordPhase(eq("users"), eq(HANDLER), anyLong());
+    verify(metrics).recordPhase(eq("users"), eq(CLOSE), anyLong());
+    verify(metrics).recordPhase(eq("users"), eq(FINALLY), anyLong());
+    verify(metrics, never()).recordPhase(eq("users"), eq(ELSE_CALL), anyLong());
+  }
+
+  @Test
+  public void try_withPolicyToCall_recordFinallyPhase_whenNoHandlerIsRegistered() {
+    Try.withPolicy(policy)
+            .toCall(Constant.DO_NOTHING)
+            .finallyDone(Constant.DO_NOTHING);
+
+    verify(metrics).recordPhase(eq("users"), eq(FINALLY), anyLong());
+  }
+
+  @Test
+  public void try_withPolicyToGetThenGet_doNotRecordDetailedPhases_whenPhaseTimingIsNotEnabled() {
+    Try.withPolicy(Policy.named("users").withMetrics(metrics))
+            .toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .finallyDone(Constant.DO_NOTHING);
+
+    verify(metrics).recordPhase(eq("users"), eq(SUPPLIER), anyLong());
+    verify(metrics, never()).recordPhase(eq("users"), eq(CLOSE), anyLong());
+    verify(metrics, never()).recordPhase(eq("users"), eq(FINALLY), anyLong());
+  }
+
+  @Test
+  public void try_withPolicyToGetThenGet_recordSlowClose_whenResourceIsSlowToClose() {
+    LatencyHistogramMetrics histograms = new LatencyHistogramMetrics();
+
+    Try.withPolicy(Policy.named("users").withPhaseTiming(1).withMetrics(histograms))
+            .withResources(() -> sleep(2))
+            .toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .done();
+
+    assertThat(histograms.getPhaseHistogram("users", CLOSE).snapshot().getMax(), greaterThanOrEqualTo(2_000_000L));
+  }
+
+  @Test
+  public void try_withPolicyToCall_sampleOneInN_whenSampleEveryIsGreaterThanOne() {
+    LatencyHistogramMetrics histograms = new LatencyHistogramMetrics();
+    Policy sampledPolicy = Policy.named("users").withMetrics(histograms).withPhaseTiming(4);
+
+    for (int i = 0; i < 4000; i++) {
+      Try.withPolicy(sampledPolicy)
+              .toCall(Constant.DO_NOTHING)
+              .finallyDone(Constant.DO_NOTHING);
+    }
+
+    assertThat(histograms.getPhaseHistogram("users", FINALLY).snapshot().getCount(), allOf(greaterThan(500L), lessThan(1500L)));
+  }
+
+  @Test
+  public void withPhaseTiming_throwIllegalArgumentException_whenSampleEveryIsNotPositive() {
+    expectedException.expect(IllegalArgumentException.class);
+    Policy.named("users").withPhaseTiming(0);
+  }
+
+  private static void sleep(final long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
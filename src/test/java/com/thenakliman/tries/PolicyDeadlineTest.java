@@ -0,0 +1,206 @@
+package com.thenakliman.tries;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+public class PolicyDeadlineTest {
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  private final TestHelper testHelper = mock(TestHelper.class);
+
+  @Test
+  public void try_withPolicyToGet_returnGetValue_whenNestedCallHasEnoughBudget() {
+    when(testHelper.getValue()).thenReturn(10);
+    Policy outer = Policy.named("outer").withTimeout(Duration.ofSeconds(10));
+    Policy inner = Policy.named("inner").withMinimumBudget(Duration.ofSeconds(1));
+
+    Integer done = Try.withPolicy(outer)
+            .toGet(() -> Try.withPolicy(inner)
+                    .toGet(testHelper::getValue)
+                    .ifRaises(TimeoutException.class)
+                    .thenGet((exception) -> 20)
+                    .done())
+            .ifRaises(TimeoutException.class)
+            .thenGet((exception) -> 30)
+            .done();
+
+    assertThat(done, is(10));
+  }
+
+  @Test
+  public void try_withPolicyToGet_failFast_whenRemainingBudgetIsSmallerThanMinimumBudget() {
+    Policy outer = Policy.named("outer").withTimeout(Duration.ofSeconds(10));
+    Policy inner = Policy.named("inner").withMinimumBudget(Duration.ofSeconds(20));
+
+    Integer done = Try.withPolicy(outer)
+            .toGet(() -> Try.withPolicy(inner)
+                    .toGet(testHelper::getValue)
+                    .ifRaises(TimeoutException.class)
+                    .thenGet((exception) -> 20)
+                    .done())
+            .ifRaises(TimeoutException.class)
+            .thenGet((exception) -> 0)
+            .done();
+
+    assertThat(done, is(20));
+    verify(testHelper, never()).getValue();
+  }
+
+  @Test
+  public void try_toGet_failFast_whenDeadlineOfOuterPolicyHasPassed() {
+    Policy outer = Policy.named("outer").withTimeout(Duration.ofMillis(1));
+
+    Integer done = Try.withPolicy(outer)
+            .toGet(() -> {
+              sleep(5);
+              return Try.toGet(testHelper::getValue)
+                      .ifRaises(DeadlineExceededException.class)
+                      .thenGet((exception) -> 20)
+                      .done();
+            })
+            .ifRaises(TimeoutException.class)
+            .thenGet((exception) -> 0)
+            .done();
+
+    assertThat(done, is(20));
+    verify(testHelper, never()).getValue();
+  }
+
+  @Test
+  public void try_toCall_failFast_whenDeadlineOfOuterPolicyHasPassed() {
+    Policy outer = Policy.named("outer").withTimeout(Duration.ofMillis(1));
+
+    Try.withPolicy(outer)
+            .toCall(() -> {
+              sleep(5);
+              Try.toCall(testHelper::call)
+                      .ifRaises(TimeoutException.class)
+                      .thenCall((exception) -> testHelper.thenCallMe())
+                      .done();
+            })
+            .done();
+
+    verify(testHelper, never()).call();
+    verify(testHelper).thenCallMe();
+  }
+
+  @Test
+  public void try_toGet_throwDeadlineExceededException_whenDeadlineHasPassedAndExceptionIsNotHandled() {
+    Policy outer = Policy.named("outer").withTimeout(Duration.ofMillis(1));
+
+    expectedException.expect(DeadlineExceededException.class);
+    Try.withPolicy(outer)
+            .toCall(() -> {
+              sleep(5);
+              Try.toCall(testHelper::call).done();
+            })
+            .done();
+  }
+
+  @Test
+  public void try_withPolicyToGet_keepOuterDeadline_whenInnerTimeoutIsLonger() {
+    Policy outer = Policy.named("outer").withTimeout(Duration.ofSeconds(1));
+    Policy inner = Policy.named("inner").withTimeout(Duration.ofSeconds(10));
+
+    Long remaining = Try.withPolicy(outer)
+            .toGet(() -> Try.withPolicy(inner)
+                    .toGet(this::remainingBudget)
+                    .ifRaises(TimeoutException.class)
+                    .thenGet((exception) -> 0L)
+                    .done())
+            .ifRaises(TimeoutException.class)
+            .thenGet((exception) -> -1L)
+            .done();
+
+    assertThat(remaining <= TimeUnit.SECONDS.toNanos(1), is(true));
+  }
+
+  @Test
+  public void try_withPolicyToGet_shortenDeadline_whenInnerTimeoutIsShorter() {
+    Policy outer = Policy.named("outer").withTimeout(Duration.ofSeconds(10));
+    Policy inner = Policy.named("inner").withTimeout(Duration.ofSeconds(1));
+
+    Long remaining = Try.withPolicy(outer)
+            .toGet(() -> Try.withPolicy(inner)
+                    .toGet(this::remainingBudget)
+                    .ifRaises(TimeoutException.class)
+                    .thenGet((exception) -> 0L)
+                    .done())
+            .ifRaises(TimeoutException.class)
+            .thenGet((exception) -> -1L)
+            .done();
+
+    assertThat(remaining <= TimeUnit.SECONDS.toNanos(1), is(true));
+  }
+
+  @Test
+  public void try_withPolicyToGet_restoreDeadline_whenExecutionIsDone() {
+    Policy outer = Policy.named("outer").withTimeout(Duration.ofSeconds(10));
+    Policy inner = Policy.named("inner").withTimeout(Duration.ofSeconds(1));
+
+    Long remainingAfterInner = Try.withPolicy(outer)
+            .toGet(() -> {
+              Try.withPolicy(inner).toCall(Constant.DO_NOTHING).done();
+              return remainingBudget();
+            })
+            .ifRaises(TimeoutException.class)
+            .thenGet((exception) -> 0L)
+            .done();
+
+    assertThat(remainingAfterInner > TimeUnit.SECONDS.toNanos(1), is(true));
+    assertThat(Deadline.current().getNanos(), is(Deadline.NONE));
+  }
+
+  @Test
+  public void try_withPolicyToGet_restoreDeadline_whenExceptionIsRaised() {
+    Policy outer = Policy.named("outer").withTimeout(Duration.ofSeconds(10));
+
+    Integer done = Try.withPolicy(outer)
+            .<Integer>toGet(() -> {
+              throw new IllegalArgumentException("failed");
+            })
+            .ifRaises(IllegalArgumentException.class)
+            .thenGet((exception) -> 20)
+            .done();
+
+    assertThat(done, is(20));
+    assertThat(Deadline.current().getNanos(), is(Deadline.NONE));
+  }
+
+  private static void sleep(final long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private Long remainingBudget() {
+    return Deadline.current().getNanos() - System.nanoTime();
+  }
+
+  static class TestHelper {
+    Integer getValue() {
+      return 10;
+    }
+
+    void call() {
+      System.out.println("call me");
+    }
+
+    void thenCallMe() {
+      System.out.println("then call me");
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package com.thenakliman.tries;
+
+import org.junit.After;
+import org.junit.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+public class PolicyExporterTest {
+  private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+  private final StripedCounterMetrics counters = new StripedCounterMetrics();
+  private final LatencyHistogramMetrics histograms = new LatencyHistogramMetrics();
+  private final PolicyExporter exporter = new PolicyExporter(counters, histograms);
+  private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 20, Duration.ofSeconds(1));
+  private final Policy policy = Policy.named("users")
+          .withConcurrencyLimiter(limiter)
+          .withMetrics(counters)
+          .withMetrics(histograms);
+
+  @After
+  public void unregister() {
+    exporter.unregister(policy);
+  }
+
+  @Test
+  public void register_exposeCountsAndLimiterState_whenPolicyIsRegistered() throws JMException {
+    exporter.register(policy);
+    executeSuccessAndFailure();
+
+    assertThat(mBeanServer.getAttribute(PolicyExporter.objectNameOf("users"), "SuccessCount"), is(1L));
+    assertThat(mBeanServer.getAttribute(PolicyExporter.objectNameOf("users"), "HandledCount"), is(1L));
+    assertThat(mBeanServer.getAttribute(PolicyExporter.objectNameOf("users"), "RethrownCount"), is(0L));
+    assertThat(mBeanServer.getAttribute(PolicyExporter.objectNameOf("users"), "ConcurrencyLimit"), is(10));
+    assertThat(mBeanServer.getAttribute(PolicyExporter.objectNameOf("users"), "InFlight"), is(0));
+  }
+
+  @Test
+  public void register_exposeLatencyPercentiles_whenPolicyIsRegistered() throws JMException {
+    exporter.register(policy);
+    Try.withPolicy(policy)
+            .toGet(() -> {
+              sleep(2);
+              return 10;
+            })
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .done();
+
+    long p99 = (Long) mBeanServer.getAttribute(PolicyExporter.objectNameOf("users"), "LatencyP99Nanos");
+    assertThat(p99 >= 2_000_000L, is(true));
+  }
+
+  @Test
+  public void register_replaceMXBean_whenPolicyIsRegisteredTwice() throws JMException {
+    exporter.register(Policy.named("users"));
+    exporter.register(policy);
+
+    assertThat(mBeanServer.getAttribute(PolicyExporter.objectNameOf("users"), "ConcurrencyLimit"), is(10));
+  }
+
+  @Test
+  public void unregister_removeMXBean_whenPolicyIsUnregistered() throws JMException {
+    exporter.register(policy);
+    exporter.unregister(policy);
+
+    assertThat(mBeanServer.isRegistered(PolicyExporter.objectNameOf("users")), is(false));
+  }
+
+  @Test
+  public void writePrometheus_writeEveryRegisteredPolicy_whenWriterIsGiven() throws IOException {
+    exporter.register(policy);
+    executeSuccessAndFailure();
+    StringWriter writer = new StringWriter();
+
+    exporter.writePrometheus(writer);
+
+    String exposition = writer.toString();
+    assertThat(exposition, containsString("# TYPE try_executions_total counter\n"));
+    assertThat(exposition, containsString("try_executions_total{policy=\"users\",outcome=\"success\"} 1\n"));
+    assertThat(exposition, containsString("try_executions_total{policy=\"users\",outcome=\"handled\"} 1\n"));
+    assertThat(exposition, containsString(
+            "try_exceptions_total{policy=\"users\",exception=\"java.lang.IllegalStateException\"} 1\n"));
+    assertThat(exposition, containsString("try_latency_seconds{policy=\"users\",quantile=\"0.99\"} "));
+    assertThat(exposition, containsString("try_latency_seconds_count{policy=\"users\"} 2\n"));
+    assertThat(exposition, containsString("try_concurrency_limit{policy=\"users\"} 10\n"));
+    assertThat(exposition, containsString("try_in_flight{policy=\"users\"} 0\n"));
+  }
+
+  @Test
+  public void writePrometheus_doNotWriteInFlight_whenPolicyIsNotConcurrencyLimited() throws IOException {
+    Policy unlimitedPolicy = Policy.named("orders");
+    exporter.register(unlimitedPolicy);
+    StringWriter writer = new StringWriter();
+
+    try {
+      exporter.writePrometheus(writer);
+    } finally {
+      exporter.unregister(unlimitedPolicy);
+    }
+
+    assertThat(writer.toString(), containsString("try_concurrency_limit{policy=\"orders\"} -1\n"));
+    assertThat(writer.toString(), not(containsString("try_in_flight{policy=\"orders\"}")));
+  }
+
+  @Test
+  public void writePrometheus_escapeLabelValues_whenPolicyNameHasQuotes() throws IOException {
+    Policy quotedPolicy = Policy.named("say \"hi\"");
+    exporter.register(quotedPolicy);
+    StringWriter writer = new StringWriter();
+
+    try {
+      exporter.writePrometheus(writer);
+    } finally {
+      exporter.unregister(quotedPolicy);
+    }
+
+    assertThat(writer.toString(), containsString("try_concurrency_limit{policy=\"say \\\"hi\\\"\"} -1\n"));
+  }
+
+  @Test
+  public void writePrometheus_replaceFile_whenFileIsGiven() throws IOException {
+    exporter.register(policy);
+    executeSuccessAndFailure();
+    Path directory = Files.createTempDirectory("try-metrics");
+    Path file = directory.resolve("try.prom");
+
+    exporter.writePrometheus(file);
+    exporter.writePrometheus(file);
+
+    String exposition = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    assertThat(exposition, containsString("try_executions_total{policy=\"users\",outcome=\"success\"} 1\n"));
+    assertThat(Files.list(directory).count(), is(1L));
+    Files.delete(file);
+    Files.delete(directory);
+  }
+
+  private void executeSuccessAndFailure() {
+    Try.withPolicy(policy)
+            .toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .done();
+    Try.withPolicy(policy)
+            .<Integer>toGet(() -> {
+              throw new IllegalStateException("failed");
+            })
+            .ifRaises(IllegalStateException.class)
+            .thenGet((exception) -> 20)
+            .done();
+  }
+
+  private static void sleep(final long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
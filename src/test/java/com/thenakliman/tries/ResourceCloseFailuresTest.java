@@ -0,0 +1,189 @@
+package com.thenakliman.tries;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ResourceCloseFailuresTest {
+  private final List<Throwable> notifiedFailures = new ArrayList<>();
+  private final ResourceCloseFailures closeFailures =
+          new ResourceCloseFailures((resource, failure) -> notifiedFailures.add(failure));
+  private final Policy policy = Policy.named("files").withResourceCloseFailures(closeFailures);
+
+  @Test
+  public void try_withResourcesToGetThenGet_countCloseFailure_whenExceptionIsNotRaised() {
+    Integer done = Try.withPolicy(policy).withResources(new FailingResource())
+            .toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .done();
+
+    assertThat(done, is(10));
+    assertThat(closeFailures.getCount(FailingResource.class), is(1L));
+    assertThat(closeFailures.getCounts().get(FailingResource.class), is(1L));
+  }
+
+  @Test
+  public void try_withResourcesToGetThenGet_notifyListener_whenCloseFails() {
+    Try.withPolicy(policy).withResources(new FailingResource())
+            .toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .done();
+
+    assertThat(notifiedFailures.size(), is(1));
+    assertThat(notifiedFailures.get(0), instanceOf(IOException.class));
+  }
+
+  @Test
+  public void try_withResourcesToGetThenGet_addCloseFailureAsSuppressed_whenExceptionIsHandled() {
+    List<Throwable> handledExceptions = new ArrayList<>();
+
+    Try.withPolicy(policy).withResources(new FailingResource())
+            .<Integer>toGet(() -> {
+              throw new IllegalStateException("failed");
+            })
+            .ifRaises(IllegalStateException.class)
+            .thenGet((exception) -> {
+              handledExceptions.add(exception);
+              return 20;
+            })
+            .done();
+
+    assertThat(handledExceptions.get(0).getSuppressed().length, is(1));
+    assertThat(handledExceptions.get(0).getSuppressed()[0], instanceOf(IOException.class));
+  }
+
+  @Test
+  public void try_withResourcesToCall_addCloseFailureAsSuppressed_whenExceptionIsRethrown() {
+    try {
+      Try.withPolicy(policy).withResources(new FailingResource(), new FailingResource())
+              .toCall(() -> {
+                throw new IllegalStateException("failed");
+              })
+              .ifRaises(IllegalArgumentException.class)
+              .thenCall((exception) -> {
+              })
+              .done();
+      fail("Expected to raise IllegalStateException");
+    } catch (IllegalStateException exception) {
+      assertThat(exception.getSuppressed().length, is(2));
+      assertThat(closeFailures.getCount(FailingResource.class), is(2L));
+    }
+  }
+
+  @Test
+  public void try_withResourcesToCall_countCloseFailure_whenListenerFails() {
+    ResourceCloseFailures failingListenerCloseFailures = new ResourceCloseFailures((resource, failure) -> {
+      throw new IllegalStateException("listener failed");
+    });
+
+    Try.withPolicy(policy.withResourceCloseFailures(failingListenerCloseFailures))
+            .withResources(new FailingResource())
+            .toCall(Constant.DO_NOTHING)
+            .ifRaises(RuntimeException.class)
+            .thenCall((exception) -> {
+            })
+            .done();
+
+    assertThat(failingListenerCloseFailures.getCount(FailingResource.class), is(1L));
+  }
+
+  @Test
+  public void try_withResourcesToGetThenGet_doNotCountClose_whenCloseSucceeds() {
+    Try.withPolicy(policy).withResources(new FlightRecordingEventsTest.Resource())
+            .toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .done();
+
+    assertThat(closeFailures.getCount(FlightRecordingEventsTest.Resource.class), is(0L));
+    assertThat(notifiedFailures.size(), is(0));
+  }
+
+  @Test
+  public void try_withResourcesToCallFinallyDone_closeResourcesOnce_whenExceptionIsRethrown() {
+    try {
+      Try.withPolicy(policy).withResources(new FailingResource())
+              .toCall(() -> {
+                throw new IllegalStateException("failed");
+              })
+              .finallyDone(Constant.DO_NOTHING);
+      fail("Expected to raise IllegalStateException");
+    } catch (IllegalStateException exception) {
+      assertThat(exception.getSuppressed().length, is(1));
+      assertThat(closeFailures.getCount(FailingResource.class), is(1L));
+      assertThat(notifiedFailures.size(), is(1));
+    }
+  }
+
+  @Test
+  public void try_withResourcesToGetThenGet_countPerPolicy_whenPoliciesHaveOwnCloseFailures() {
+    ResourceCloseFailures otherCloseFailures = new ResourceCloseFailures();
+    Try.withPolicy(policy).withResources(new FailingResource())
+            .toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .done();
+    Try.withPolicy(Policy.named("sockets").withResourceCloseFailures(otherCloseFailures))
+            .withResources(new FailingResource(), new FailingResource())
+            .toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .done();
+    otherCloseFailures.reset();
+
+    assertThat(closeFailures.getCount(FailingResource.class), is(1L));
+    assertThat(otherCloseFailures.getCount(FailingResource.class), is(0L));
+  }
+
+  @Test
+  public void try_withResourcesToGetThenGet_countAsUnowned_whenPolicyHasNoCloseFailures() {
+    long unownedFailures = ResourceCloseFailures.unowned().getCount(UnownedFailingResource.class);
+    Integer done = Try.withResources(new UnownedFailingResource())
+            .toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .done();
+
+    assertThat(done, is(10));
+    assertThat(closeFailures.getCount(UnownedFailingResource.class), is(0L));
+    assertThat(notifiedFailures.size(), is(0));
+    assertThat(ResourceCloseFailures.unowned().getCount(UnownedFailingResource.class), is(unownedFailures + 1));
+  }
+
+  @Test
+  public void try_withResourcesToGetThenGet_doNotCountAsUnowned_whenPolicyHasCloseFailures() {
+    long unownedFailures = ResourceCloseFailures.unowned().getCount(UnownedFailingResource.class);
+    Try.withPolicy(policy)
+            .withResources(new UnownedFailingResource())
+            .toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .done();
+
+    assertThat(closeFailures.getCount(UnownedFailingResource.class), is(1L));
+    assertThat(ResourceCloseFailures.unowned().getCount(UnownedFailingResource.class), is(unownedFailures));
+  }
+
+  static class FailingResource implements AutoCloseable {
+    @Override
+    public void close() throws IOException {
+      throw new IOException("failed to flush");
+    }
+  }
+
+  static class UnownedFailingResource implements AutoCloseable {
+    @Override
+    public void close() throws IOException {
+      throw new IOException("failed to flush");
+    }
+  }
+}
@@ -0,0 +1,188 @@
+package com.thenakliman.tries;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static com.thenakliman.tries.SneakyThrower.sneakyThrow;
+import static com.thenakliman.tries.TryMetrics.Outcome.HANDLED;
+import static com.thenakliman.tries.TryMetrics.Outcome.RETHROWN;
+import static com.thenakliman.tries.TryMetrics.Outcome.SUCCESS;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+public class StripedCounterMetricsTest {
+  private final StripedCounterMetrics metrics = new StripedCounterMetrics();
+  private final Policy policy = Policy.named("users").withMetrics(metrics);
+
+  @Test
+  public void try_withPolicyToGetThenGet_countSuccess_whenExceptionIsNotRaised() {
+    Try.withPolicy(policy)
+            .toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .done();
+
+    assertThat(metrics.getCount("users", SUCCESS), is(1L));
+    assertThat(metrics.getTotalCount("users"), is(1L));
+  }
+
+  @Test
+  public void try_withPolicyToGetThenGet_countHandledPerExceptionAndHandler_whenExceptionIsRaised() {
+    for (int i = 0; i < 3; i++) {
+      Try.withPolicy(policy)
+              .<Integer>toGet(() -> {
+                throw new IllegalStateException("failed");
+              })
+              .ifRaises(IllegalArgumentException.class)
+              .thenGet((exception) -> 20)
+              .elseIfRaises(IllegalStateException.class)
+              .thenGet((exception) -> 30)
+              .done();
+    }
+
+    assertThat(metrics.getCount("users", HANDLED), is(3L));
+    assertThat(metrics.getExceptionCount("users", IllegalStateException.class), is(3L));
+    assertThat(metrics.getExceptionCounts("users").get(IllegalStateException.class), is(3L));
+    assertThat(metrics.getHandlerCount("users", 1), is(3L));
+    assertThat(metrics.getHandlerCount("users", 0), is(0L));
+  }
+
+  @Test
+  public void try_withPolicyToGetThenThrow_countHandled_whenExceptionIsTranslated() {
+    try {
+      Try.withPolicy(policy)
+              .<Integer>toGet(() -> {
+                throw new IllegalStateException("failed");
+              })
+              .ifRaises(IllegalStateException.class)
+              .thenThrow((exception) -> new IllegalArgumentException())
+              .finallyDone(Constant.DO_NOTHING);
+      fail("Expected to raise IllegalArgumentException");
+    } catch (IllegalArgumentException exception) {
+      assertThat(metrics.getCount("users", HANDLED), is(1L));
+      assertThat(metrics.getExceptionCount("users", IllegalStateException.class), is(1L));
+    }
+  }
+
+  @Test
+  public void try_withPolicyToGetThenGet_countRethrown_whenExceptionIsNotHandled() {
+    try {
+      Try.withPolicy(policy)
+              .<Integer>toGet(() -> {
+                throw sneakyThrow(new IOException("io"));
+              })
+              .ifRaises(RuntimeException.class)
+              .thenGet((exception) -> 20)
+              .done();
+      fail("Expected to raise IOException");
+    } catch (Exception exception) {
+      assertThat(metrics.getCount("users", RETHROWN), is(1L));
+      assertThat(metrics.getExceptionCount("users", IOException.class), is(1L));
+    }
+  }
+
+  @Test
+  public void try_withPolicyToCallThenCall_countSuccessAndHandled_whenCalledTwice() {
+    Try.withPolicy(policy)
+            .toCall(Constant.DO_NOTHING)
+            .ifRaises(RuntimeException.class)
+            .thenCall((exception) -> {
+            })
+            .done();
+    Try.withPolicy(policy)
+            .toCall(() -> {
+              throw new IllegalStateException("failed");
+            })
+            .ifRaises(RuntimeException.class)
+            .thenCall((exception) -> {
+            })
+            .finallyDone(Constant.DO_NOTHING);
+
+    assertThat(metrics.getCount("users", SUCCESS), is(1L));
+    assertThat(metrics.getCount("users", HANDLED), is(1L));
+    assertThat(metrics.getHandlerCount("users", 0), is(1L));
+  }
+
+  @Test
+  public void try_withPolicyToCall_countRethrown_whenNoHandlerIsRegistered() {
+    try {
+      Try.withPolicy(policy)
+              .toCall(() -> {
+                throw new IllegalStateException("failed");
+              })
+              .done();
+      fail("Expected to raise IllegalStateException");
+    } catch (IllegalStateException exception) {
+      assertThat(metrics.getCount("users", RETHROWN), is(1L));
+    }
+  }
+
+  @Test
+  public void try_withPolicyToGetThenGet_recordLatency_whenExceptionIsNotRaised() {
+    Try.withPolicy(policy)
+            .toGet(() -> {
+              sleep(2);
+              return 10;
+            })
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .done();
+
+    assertThat(metrics.getTotalLatencyNanos("users") >= 2_000_000L, is(true));
+  }
+
+  @Test
+  public void try_withPolicyToGetThenGet_countPerPolicy_whenMetricsAreShared() {
+    Policy otherPolicy = Policy.named("orders").withMetrics(metrics);
+    Try.withPolicy(policy).toCall(Constant.DO_NOTHING).done();
+    Try.withPolicy(otherPolicy).toCall(Constant.DO_NOTHING).done();
+    Try.withPolicy(otherPolicy).toCall(Constant.DO_NOTHING).done();
+
+    assertThat(metrics.getCount("users", SUCCESS), is(1L));
+    assertThat(metrics.getCount("orders", SUCCESS), is(2L));
+    assertThat(metrics.getPolicyNames().size(), is(2));
+  }
+
+  @Test
+  public void try_withPolicyToGetThenGet_invokeEveryMetrics_whenMoreThanOneIsRegistered() {
+    TryMetrics customMetrics = mock(TryMetrics.class);
+
+    Try.withPolicy(policy.withMetrics(customMetrics))
+            .<Integer>toGet(() -> {
+              throw new IllegalStateException("failed");
+            })
+            .ifRaises(IllegalStateException.class)
+            .thenGet((exception) -> 20)
+            .done();
+
+    assertThat(metrics.getCount("users", HANDLED), is(1L));
+    verify(customMetrics).record(eq("users"), eq(HANDLED), eq(IllegalStateException.class), eq(0), anyLong());
+  }
+
+  @Test
+  public void try_withPolicyToGetThenGet_recordSuccessWithoutException_whenExceptionIsNotRaised() {
+    TryMetrics customMetrics = mock(TryMetrics.class);
+
+    Try.withPolicy(Policy.named("users").withMetrics(customMetrics))
+            .toGet(() -> 10)
+            .ifRaises(IllegalStateException.class)
+            .thenGet((exception) -> 20)
+            .done();
+
+    verify(customMetrics).record(eq("users"), eq(SUCCESS), isNull(), eq(TryMetrics.NO_HANDLER), anyLong());
+  }
+
+  private static void sleep(final long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
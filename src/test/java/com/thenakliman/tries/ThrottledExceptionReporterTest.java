@@ -0,0 +1,154 @@
+package com.thenakliman.tries;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ThrottledExceptionReporterTest {
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  private final AtomicLong clock = new AtomicLong();
+  private final List<Report> reports = new ArrayList<>();
+  private final ThrottledExceptionReporter reporter = new ThrottledExceptionReporter(
+          (exception, suppressedCount) -> reports.add(new Report(exception, suppressedCount)),
+          Duration.ofSeconds(10),
+          3,
+          2,
+          clock::get);
+
+  @Test
+  public void try_toCallThenCall_reportOnce_whenSameExceptionIsRaisedWithinInterval() {
+    for (int i = 0; i < 5; i++) {
+      Try.toCall(() -> {
+        throw new IllegalStateException("failed");
+      })
+              .ifRaises(IllegalStateException.class)
+              .thenCall(reporter)
+              .done();
+    }
+
+    assertThat(reports.size(), is(1));
+    assertThat(reports.get(0).suppressedCount, is(0L));
+    assertThat(reporter.getSuppressedCount(), is(4L));
+  }
+
+  @Test
+  public void try_toCallThenCall_reportSuppressedCount_whenIntervalHasPassed() {
+    for (int i = 0; i < 5; i++) {
+      callAndReport();
+    }
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+    callAndReport();
+
+    assertThat(reports.size(), is(2));
+    assertThat(reports.get(1).suppressedCount, is(4L));
+  }
+
+  @Test
+  public void try_toGetThenGet_reportAndReturnThenValue_whenExceptionIsRaised() {
+    Integer done = Try.<Integer>toGet(() -> {
+      throw new IllegalStateException("failed");
+    })
+            .ifRaises(IllegalStateException.class)
+            .thenGet(reporter.andGet((exception) -> 20))
+            .done();
+
+    assertThat(done, is(20));
+    assertThat(reports.size(), is(1));
+  }
+
+  @Test
+  public void accept_reportEachFingerprint_whenExceptionsAreRaisedAtDifferentPlaces() {
+    reporter.accept(new IllegalStateException("first"));
+    reporter.accept(new IllegalStateException("second"));
+    reporter.accept(new IllegalArgumentException("third"));
+
+    assertThat(reports.size(), is(3));
+    assertThat(reporter.getFingerprintCount(), is(2));
+  }
+
+  @Test
+  public void accept_throttleTogether_whenFingerprintsExceedMaximum() {
+    reporter.accept(new IllegalStateException("first"));
+    reporter.accept(new IllegalArgumentException("second"));
+    reporter.accept(new UnsupportedOperationException("third"));
+    reporter.accept(new ArithmeticException("fourth"));
+
+    assertThat(reports.size(), is(3));
+    assertThat(reporter.getSuppressedCount(), is(1L));
+    assertThat(reporter.getFingerprintCount(), is(2));
+  }
+
+  @Test
+  public void accept_purgeIdleFingerprints_whenFingerprintsExceedMaximumAfterInterval() {
+    reporter.accept(new IllegalStateException("first"));
+    reporter.accept(new IllegalArgumentException("second"));
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+    reporter.accept(new UnsupportedOperationException("third"));
+
+    assertThat(reports.size(), is(3));
+    assertThat(reporter.getFingerprintCount(), is(1));
+  }
+
+  @Test
+  public void accept_purgeSuppressedFingerprints_whenFingerprintsExceedMaximumAfterInterval() {
+    IllegalStateException first = new IllegalStateException("first");
+    IllegalArgumentException second = new IllegalArgumentException("second");
+    reporter.accept(first);
+    reporter.accept(first);
+    reporter.accept(second);
+    reporter.accept(second);
+    clock.addAndGet(TimeUnit.HOURS.toNanos(1));
+    reporter.accept(new UnsupportedOperationException("third"));
+    reporter.accept(new ArithmeticException("fourth"));
+
+    assertThat(reports.size(), is(4));
+    assertThat(reporter.getSuppressedCount(), is(2L));
+    assertThat(reporter.getFingerprintCount(), is(2));
+  }
+
+  @Test
+  public void accept_reportByTypeOnly_whenExceptionHasNoStackTrace() {
+    reporter.accept(new DeadlineExceededException("first", 0));
+    reporter.accept(new DeadlineExceededException("second", 0));
+
+    assertThat(reports.size(), is(1));
+  }
+
+  @Test
+  public void constructor_throwIllegalArgumentException_whenIntervalIsNotPositive() {
+    expectedException.expect(IllegalArgumentException.class);
+    new ThrottledExceptionReporter((exception, suppressedCount) -> {
+    }, Duration.ZERO);
+  }
+
+  private void callAndReport() {
+    Try.toCall(() -> {
+      throw new IllegalStateException("failed");
+    })
+            .ifRaises(IllegalStateException.class)
+            .thenCall(reporter)
+            .done();
+  }
+
+  static class Report {
+    final private Throwable exception;
+    final private long suppressedCount;
+
+    Report(final Throwable exception, final long suppressedCount) {
+      this.exception = exception;
+      this.suppressedCount = suppressedCount;
+    }
+  }
+}
@@ -0,0 +1,192 @@
+package com.thenakliman.tries;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static com.thenakliman.tries.SneakyThrower.sneakyThrow;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TryToGetLastSuccessfulTest {
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  private final AtomicLong now = new AtomicLong();
+  private final LastSuccessfulCache<String, Integer> cache = new LastSuccessfulCache<>(100, now::get);
+
+  @Test
+  public void try_toGetThenGetLastSuccessful_returnGetValue_whenExceptionIsNotRaised() {
+    Integer done = Try.toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGetLastSuccessful(cache, "key", Duration.ofSeconds(10))
+            .done();
+
+    assertThat(done, is(10));
+    assertThat(cache.get("key").getValue(), is(10));
+  }
+
+  @Test
+  public void try_toGetThenGetLastSuccessful_returnLastSuccessfulValue_whenExceptionIsRaised() {
+    getFromCache(() -> 10, "key");
+    now.addAndGet(Duration.ofSeconds(9).toNanos());
+
+    Integer done = getFromCache(this::fail, "key");
+
+    assertThat(done, is(10));
+  }
+
+  @Test
+  public void try_toGetThenGetLastSuccessful_returnLastSuccessfulValueOfSameKey_whenExceptionIsRaised() {
+    getFromCache(() -> 10, "key1");
+    getFromCache(() -> 20, "key2");
+
+    assertThat(getFromCache(this::fail, "key1"), is(10));
+    assertThat(getFromCache(this::fail, "key2"), is(20));
+  }
+
+  @Test
+  public void try_toGetThenGetLastSuccessful_returnLatestSuccessfulValue_whenExceptionIsRaised() {
+    getFromCache(() -> 10, "key");
+    getFromCache(() -> 20, "key");
+
+    assertThat(getFromCache(this::fail, "key"), is(20));
+  }
+
+  @Test
+  public void try_toGetThenGetLastSuccessfulFinallyDone_returnLastSuccessfulValue_whenExceptionIsRaised() {
+    Try.toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGetLastSuccessful(cache, "key", Duration.ofSeconds(10))
+            .finallyDone(Constant.DO_NOTHING);
+
+    Integer done = Try.toGet(this::fail)
+            .ifRaises(RuntimeException.class)
+            .thenGetLastSuccessful(cache, "key", Duration.ofSeconds(10))
+            .finallyDone(Constant.DO_NOTHING);
+
+    assertThat(done, is(10));
+  }
+
+  @Test
+  public void try_toGetThenGetLastSuccessfulElseIfRaises_fallThroughToNextHandler_whenValueIsStale() {
+    getFromCache(() -> 10, "key");
+    now.addAndGet(Duration.ofSeconds(11).toNanos());
+
+    Integer done = Try.toGet(this::fail)
+            .ifRaises(RuntimeException.class)
+            .thenGetLastSuccessful(cache, "key", Duration.ofSeconds(10))
+            .elseIfRaises(RuntimeException.class)
+            .thenGet((exception) -> 30)
+            .done();
+
+    assertThat(done, is(30));
+  }
+
+  @Test
+  public void try_toGetThenGetLastSuccessfulElseIfRaises_fallThroughToNextHandler_whenNothingIsRecorded() {
+    Integer done = Try.toGet(this::fail)
+            .ifRaises(RuntimeException.class)
+            .thenGetLastSuccessful(cache, "key", Duration.ofSeconds(10))
+            .elseIfRaises(RuntimeException.class)
+            .thenGet((exception) -> 30)
+            .done();
+
+    assertThat(done, is(30));
+  }
+
+  @Test
+  public void try_toGetThenGetLastSuccessful_throwRaisedException_whenValueIsStaleAndNoOtherHandler() {
+    getFromCache(() -> 10, "key");
+    now.addAndGet(Duration.ofSeconds(11).toNanos());
+
+    expectedException.expect(IllegalArgumentException.class);
+    getFromCache(this::fail, "key");
+  }
+
+  @Test
+  public void try_toGetThenGetLastSuccessful_throwRaisedException_whenExceptionIsNotHandled() {
+    getFromCache(() -> 10, "key");
+
+    expectedException.expect(IOException.class);
+    Try.<Integer>toGet(() -> {
+      throw sneakyThrow(new IOException("io"));
+    })
+            .ifRaises(RuntimeException.class)
+            .thenGetLastSuccessful(cache, "key", Duration.ofSeconds(10))
+            .done();
+  }
+
+  @Test
+  public void try_toGetThenGetLastSuccessful_doesNotRecordValue_whenExceptionIsHandledByOtherHandler() {
+    Try.toGet(this::fail)
+            .ifRaises(RuntimeException.class)
+            .thenGetLastSuccessful(cache, "key", Duration.ofSeconds(10))
+            .elseIfRaises(RuntimeException.class)
+            .thenGet((exception) -> 30)
+            .done();
+
+    assertThat(cache.size(), is(0));
+  }
+
+  @Test
+  public void lastSuccessfulCache_evictsEntries_whenMaximumSizeIsReached() {
+    LastSuccessfulCache<Integer, Integer> boundedCache = new LastSuccessfulCache<>(32);
+    for (int i = 0; i < 10_000; i++) {
+      boundedCache.record(i, i);
+    }
+
+    assertThat(boundedCache.size() <= 32, is(true));
+  }
+
+  @Test
+  public void lastSuccessfulCache_holdMaximumSize_whenMaximumSizeIsSmallerThanSegments() {
+    LastSuccessfulCache<Integer, Integer> boundedCache = new LastSuccessfulCache<>(5);
+    for (int i = 0; i < 10_000; i++) {
+      boundedCache.record(i, i);
+    }
+
+    assertThat(boundedCache.size(), is(5));
+  }
+
+  @Test
+  public void lastSuccessfulCache_holdMaximumSize_whenMaximumSizeIsNotMultipleOfSegments() {
+    LastSuccessfulCache<Integer, Integer> boundedCache = new LastSuccessfulCache<>(100);
+    for (int i = 0; i < 10_000; i++) {
+      boundedCache.record(i, i);
+    }
+
+    assertThat(boundedCache.size(), is(100));
+  }
+
+  @Test
+  public void lastSuccessfulValueProvider_serveLookedUpValue_whenEntryIsEvictedBeforeHandling() {
+    LastSuccessfulCache<String, Integer> singleEntryCache = new LastSuccessfulCache<>(1, now::get);
+    singleEntryCache.record("key", 10);
+    TryToGet.IExceptionHandler<Integer> exceptionHandler = new TryToGet.LastSuccessfulValueProvider<>(
+            RuntimeException.class, singleEntryCache, "key", Duration.ofSeconds(10).toNanos())
+            .handlerFor(new IllegalArgumentException());
+
+    singleEntryCache.record("other", 20);
+
+    assertThat(singleEntryCache.get("key") == null, is(true));
+    assertThat(exceptionHandler.handleException(new IllegalArgumentException()), is(10));
+  }
+
+  private Integer getFromCache(final Supplier<Integer> supplier, final String key) {
+    return Try.toGet(supplier)
+            .ifRaises(RuntimeException.class)
+            .thenGetLastSuccessful(cache, key, Duration.ofSeconds(10))
+            .done();
+  }
+
+  private Integer fail() {
+    throw new IllegalArgumentException("failed");
+  }
+}
@@ -0,0 +1,199 @@
+package com.thenakliman.tries;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+public class TryToGetMemoizedTest {
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  private final AtomicLong now = new AtomicLong();
+  private final List<Runnable> refreshes = new ArrayList<>();
+  private final TestHelper testHelper = mock(TestHelper.class);
+
+  @Test
+  public void try_toGetMemoizedThenGet_callSupplierOnce_whenCalledWithinTtl() {
+    when(testHelper.getValue()).thenReturn(10);
+    TryToGet.Executor<Integer> executor = Try.toGetMemoized(testHelper::getValue, Duration.ofMinutes(1), refreshes::add)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20);
+
+    assertThat(executor.done(), is(10));
+    assertThat(executor.done(), is(10));
+    assertThat(executor.finallyDone(Constant.DO_NOTHING), is(10));
+    verify(testHelper, times(1)).getValue();
+  }
+
+  @Test
+  public void try_toGetMemoizedThenGet_returnThenValue_whenFirstLoadRaisesException() {
+    when(testHelper.getValue()).thenThrow(IllegalArgumentException.class);
+
+    Integer done = memoized(Duration.ofSeconds(10))
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .done();
+
+    assertThat(done, is(20));
+  }
+
+  @Test
+  public void try_toGetMemoizedThenGet_reloadValue_whenTtlIsExpired() {
+    when(testHelper.getValue()).thenReturn(10, 11);
+    TryToGet.Executor<Integer> executor = memoized(Duration.ofSeconds(10))
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20);
+
+    assertThat(executor.done(), is(10));
+    now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+    assertThat(executor.done(), is(11));
+    assertThat(refreshes.size(), is(0));
+  }
+
+  @Test
+  public void try_toGetMemoizedThenGet_refreshInBackground_whenCloseToExpiry() {
+    when(testHelper.getValue()).thenReturn(10, 11);
+    TryToGet.Executor<Integer> executor = memoized(Duration.ofSeconds(10))
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20);
+
+    assertThat(executor.done(), is(10));
+    now.addAndGet(Duration.ofSeconds(9).toNanos());
+
+    assertThat(executor.done(), is(10));
+    assertThat(executor.done(), is(10));
+    assertThat(refreshes.size(), is(1));
+
+    refreshes.get(0).run();
+    assertThat(executor.done(), is(11));
+    verify(testHelper, times(2)).getValue();
+  }
+
+  @Test
+  public void try_toGetMemoizedThenCall_serveStaleValueAndCallHandler_whenRefreshRaisesException() {
+    when(testHelper.getValue()).thenReturn(10).thenThrow(IllegalArgumentException.class);
+    TryToGet.Executor<Integer> executor = memoized(Duration.ofSeconds(10))
+            .ifRaises(IllegalArgumentException.class)
+            .thenGet((exception) -> testHelper.onRefreshFailure());
+
+    assertThat(executor.done(), is(10));
+    now.addAndGet(Duration.ofSeconds(9).toNanos());
+    assertThat(executor.done(), is(10));
+
+    refreshes.get(0).run();
+    assertThat(executor.done(), is(10));
+    verify(testHelper).onRefreshFailure();
+  }
+
+  @Test
+  public void try_toGetMemoizedThenThrow_serveStaleValue_whenRefreshRaisesException() {
+    when(testHelper.getValue()).thenReturn(10).thenThrow(IllegalArgumentException.class);
+    TryToGet.Executor<Integer> executor = memoized(Duration.ofSeconds(10))
+            .ifRaises(IllegalArgumentException.class)
+            .thenThrow((exception) -> new IllegalStateException());
+
+    assertThat(executor.done(), is(10));
+    now.addAndGet(Duration.ofSeconds(9).toNanos());
+    assertThat(executor.done(), is(10));
+
+    refreshes.get(0).run();
+    assertThat(executor.done(), is(10));
+    assertThat(executor.done(), is(10));
+    assertThat(refreshes.size(), is(1));
+  }
+
+  @Test
+  public void try_toGetMemoizedThenThrow_retryRefreshAfterBackOff_whenRefreshRaisesException() {
+    when(testHelper.getValue()).thenReturn(10).thenThrow(IllegalArgumentException.class);
+    TryToGet.Executor<Integer> executor = memoized(Duration.ofSeconds(10))
+            .ifRaises(IllegalArgumentException.class)
+            .thenThrow((exception) -> new IllegalStateException());
+
+    assertThat(executor.done(), is(10));
+    now.addAndGet(Duration.ofSeconds(9).toNanos());
+    assertThat(executor.done(), is(10));
+    refreshes.get(0).run();
+    now.addAndGet(Duration.ofMillis(199).toNanos());
+    assertThat(executor.done(), is(10));
+    assertThat(refreshes.size(), is(1));
+
+    now.addAndGet(Duration.ofMillis(1).toNanos());
+    assertThat(executor.done(), is(10));
+    assertThat(refreshes.size(), is(2));
+  }
+
+  @Test
+  public void try_toGetMemoizedThenThrow_throwNewException_whenLoadAfterExpiryRaisesException() {
+    when(testHelper.getValue()).thenReturn(10).thenThrow(IllegalArgumentException.class);
+    TryToGet.Executor<Integer> executor = memoized(Duration.ofSeconds(10))
+            .ifRaises(IllegalArgumentException.class)
+            .thenThrow((exception) -> new IllegalStateException());
+
+    assertThat(executor.done(), is(10));
+    now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+    expectedException.expect(IllegalStateException.class);
+    executor.done();
+  }
+
+  @Test
+  public void try_withPolicyToGetMemoizedThenGet_loadAndRefreshThroughPolicy_whenValueIsLoaded() {
+    when(testHelper.getValue()).thenReturn(10, 11);
+    TryMetrics metrics = mock(TryMetrics.class);
+    TryToGet.Executor<Integer> executor = new TryToGet<>(
+            new MemoizedSupplier<>(testHelper::getValue, Duration.ofSeconds(10).toNanos(), refreshes::add, now::get),
+            new AutoCloseable[0],
+            Policy.named("config").withMetrics(metrics))
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20);
+
+    assertThat(executor.done(), is(10));
+    now.addAndGet(Duration.ofSeconds(9).toNanos());
+    assertThat(executor.done(), is(10));
+    verify(metrics, times(1)).recordPhase(eq("config"), eq(TryMetrics.Phase.SUPPLIER), anyLong());
+
+    refreshes.get(0).run();
+    assertThat(executor.done(), is(11));
+    verify(metrics, times(2)).recordPhase(eq("config"), eq(TryMetrics.Phase.SUPPLIER), anyLong());
+  }
+
+  @Test
+  public void try_withPolicyToGetMemoizedThenGet_returnThenValue_whenConcurrencyLimitIsExceeded() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, Duration.ofSeconds(1));
+    limiter.tryAcquire();
+
+    Integer done = Try.withPolicy(Policy.named("config").withConcurrencyLimiter(limiter))
+            .toGetMemoized(testHelper::getValue, Duration.ofSeconds(10), refreshes::add)
+            .ifRaises(ConcurrencyLimitExceededException.class)
+            .thenGet((exception) -> 20)
+            .done();
+
+    assertThat(done, is(20));
+    verify(testHelper, never()).getValue();
+  }
+
+  private TryToGet<Integer> memoized(final Duration ttl) {
+    return new TryToGet<>(new MemoizedSupplier<>(testHelper::getValue, ttl.toNanos(), refreshes::add, now::get));
+  }
+
+  static class TestHelper {
+    Integer getValue() {
+      return 10;
+    }
+
+    Integer onRefreshFailure() {
+      return 30;
+    }
+  }
+}
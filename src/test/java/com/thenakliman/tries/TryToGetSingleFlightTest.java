@@ -0,0 +1,286 @@
+package com.thenakliman.tries;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.*;
+
+public class TryToGetSingleFlightTest {
+  private static final int WAITERS = 8;
+
+  private final List<Thread> threads = new CopyOnWriteArrayList<>();
+  private final ExecutorService executorService = Executors.newFixedThreadPool(WAITERS + 1, runnable -> {
+    Thread thread = new Thread(runnable);
+    threads.add(thread);
+    return thread;
+  });
+  private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+  private final CountDownLatch supplierStarted = new CountDownLatch(1);
+  private final CountDownLatch releaseSupplier = new CountDownLatch(1);
+  private final AtomicInteger supplierCalls = new AtomicInteger();
+
+  @After
+  public void shutdown() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  public void try_toGetThenGetSingleFlightDone_returnGetValue_whenExceptionIsNotRaised() {
+    Integer done = Try.toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .singleFlightDone(singleFlight, "key");
+
+    assertThat(done, is(10));
+    assertThat(singleFlight.inFlight(), is(0));
+  }
+
+  @Test
+  public void try_toGetThenGetElseCallSingleFlightDone_returnGetValueElseCalled_whenExceptionIsNotRaised() {
+    TestHelper testHelper = mock(TestHelper.class);
+    Integer done = Try.toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .elseCall((value) -> testHelper.elseCallMe())
+            .singleFlightDone(singleFlight, "key");
+
+    assertThat(done, is(10));
+    verify(testHelper).elseCallMe();
+  }
+
+  @Test
+  public void try_toGetThenGetSingleFlightDone_shareValue_whenCalledConcurrently() throws Exception {
+    List<Future<Integer>> results = callConcurrently(() -> {
+      awaitRelease();
+      return supplierCalls.incrementAndGet();
+    });
+
+    for (Future<Integer> result : results) {
+      assertThat(result.get(10, TimeUnit.SECONDS), is(1));
+    }
+    assertThat(supplierCalls.get(), is(1));
+  }
+
+  @Test
+  public void try_toGetThenGetSingleFlightDone_shareHandledValue_whenCalledConcurrentlyAndExceptionIsRaised() throws Exception {
+    List<Future<Integer>> results = callConcurrently(() -> {
+      awaitRelease();
+      supplierCalls.incrementAndGet();
+      throw new IllegalArgumentException("failed");
+    });
+
+    for (Future<Integer> result : results) {
+      assertThat(result.get(10, TimeUnit.SECONDS), is(20));
+    }
+    assertThat(supplierCalls.get(), is(1));
+  }
+
+  @Test
+  public void try_toGetThenThrowSingleFlightDone_shareException_whenCalledConcurrentlyAndExceptionIsRaised() throws Exception {
+    IllegalStateException thrownException = new IllegalStateException("failed");
+    List<Future<Integer>> results = new ArrayList<>();
+    for (int i = 0; i <= WAITERS; i++) {
+      results.add(executorService.submit(() -> Try.<Integer>toGet(() -> {
+        awaitRelease();
+        supplierCalls.incrementAndGet();
+        throw new IllegalArgumentException("failed");
+      })
+              .ifRaises(IllegalArgumentException.class)
+              .thenThrow((exception) -> thrownException)
+              .singleFlightDone(singleFlight, "key")));
+      if (i == 0) {
+        supplierStarted.await(10, TimeUnit.SECONDS);
+      }
+    }
+    releaseWhenAllWaiting();
+
+    for (Future<Integer> result : results) {
+      try {
+        result.get(10, TimeUnit.SECONDS);
+        fail("Expected to raise IllegalStateException");
+      } catch (ExecutionException exception) {
+        assertThat(exception.getCause(), sameInstance(thrownException));
+      }
+    }
+    assertThat(supplierCalls.get(), is(1));
+  }
+
+  @Test
+  public void try_toGetThenThrowSingleFlightDone_shareCompletionException_whenCalledConcurrentlyAndItIsRaised() throws Exception {
+    CompletionException thrownException = new CompletionException("failed", null);
+    List<Future<Integer>> results = new ArrayList<>();
+    for (int i = 0; i <= WAITERS; i++) {
+      results.add(executorService.submit(() -> Try.<Integer>toGet(() -> {
+        awaitRelease();
+        throw new IllegalArgumentException("failed");
+      })
+              .ifRaises(IllegalArgumentException.class)
+              .thenThrow((exception) -> thrownException)
+              .singleFlightDone(singleFlight, "key")));
+      if (i == 0) {
+        supplierStarted.await(10, TimeUnit.SECONDS);
+      }
+    }
+    releaseWhenAllWaiting();
+
+    for (Future<Integer> result : results) {
+      try {
+        result.get(10, TimeUnit.SECONDS);
+        fail("Expected to raise CompletionException");
+      } catch (ExecutionException exception) {
+        assertThat(exception.getCause(), sameInstance(thrownException));
+      }
+    }
+  }
+
+  @Test
+  public void try_withPolicyToGetThenGetSingleFlightDone_throwDeadlineExceededException_whenTimeoutPassesWhileWaiting()
+          throws Exception {
+    Future<Integer> leader = executorService.submit(() -> Try.toGet(() -> {
+      awaitRelease();
+      return 10;
+    })
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .singleFlightDone(singleFlight, "key"));
+    supplierStarted.await(10, TimeUnit.SECONDS);
+
+    try {
+      Try.withPolicy(Policy.named("users").withTimeout(Duration.ofMillis(50)))
+              .toGet(() -> 30)
+              .ifRaises(IllegalArgumentException.class)
+              .thenGet((exception) -> 40)
+              .singleFlightDone(singleFlight, "key");
+      fail("Expected to raise DeadlineExceededException");
+    } catch (Exception exception) {
+      assertThat(exception instanceof DeadlineExceededException, is(true));
+    } finally {
+      releaseSupplier.countDown();
+    }
+
+    assertThat(leader.get(10, TimeUnit.SECONDS), is(10));
+  }
+
+  @Test
+  public void try_withResourcesToGetThenGetSingleFlightDone_closeResourcesOfEveryCaller_whenCalledConcurrently() throws Exception {
+    List<TryToCallWithResourcesR1R2Test.MyResource> resources = new ArrayList<>();
+    List<Future<Integer>> results = new ArrayList<>();
+    for (int i = 0; i <= WAITERS; i++) {
+      TryToCallWithResourcesR1R2Test.MyResource resource = mock(TryToCallWithResourcesR1R2Test.MyResource.class);
+      resources.add(resource);
+      results.add(executorService.submit(() -> Try.withResources(resource)
+              .toGet(() -> {
+                awaitRelease();
+                return supplierCalls.incrementAndGet();
+              })
+              .ifRaises(RuntimeException.class)
+              .thenGet((exception) -> 20)
+              .singleFlightDone(singleFlight, "key")));
+      if (i == 0) {
+        supplierStarted.await(10, TimeUnit.SECONDS);
+      }
+    }
+    releaseWhenAllWaiting();
+
+    for (Future<Integer> result : results) {
+      assertThat(result.get(10, TimeUnit.SECONDS), is(1));
+    }
+    for (TryToCallWithResourcesR1R2Test.MyResource resource : resources) {
+      verify(resource).close();
+    }
+  }
+
+  @Test
+  public void try_toGetThenGetSingleFlightDone_throwIllegalStateException_whenSupplierReEntersSameKey() throws Exception {
+    Future<Integer> result = executorService.submit(() -> Try.toGet(() -> Try.toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .singleFlightDone(singleFlight, "key"))
+            .ifRaises(IllegalArgumentException.class)
+            .thenGet((exception) -> 30)
+            .singleFlightDone(singleFlight, "key"));
+
+    try {
+      result.get(10, TimeUnit.SECONDS);
+      fail("Expected to raise IllegalStateException");
+    } catch (ExecutionException exception) {
+      assertThat(exception.getCause() instanceof IllegalStateException, is(true));
+    }
+    assertThat(singleFlight.inFlight(), is(0));
+  }
+
+  @Test
+  public void try_toGetThenGetSingleFlightDone_returnInnerValue_whenSupplierEntersOtherKey() {
+    Integer done = Try.toGet(() -> Try.toGet(() -> 10)
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 20)
+            .singleFlightDone(singleFlight, "inner"))
+            .ifRaises(RuntimeException.class)
+            .thenGet((exception) -> 30)
+            .singleFlightDone(singleFlight, "outer");
+
+    assertThat(done, is(10));
+  }
+
+  private List<Future<Integer>> callConcurrently(final Supplier<Integer> supplier) throws Exception {
+    List<Future<Integer>> results = new ArrayList<>();
+    for (int i = 0; i <= WAITERS; i++) {
+      results.add(executorService.submit(() -> Try.toGet(supplier)
+              .ifRaises(RuntimeException.class)
+              .thenGet((exception) -> 20)
+              .singleFlightDone(singleFlight, "key")));
+      if (i == 0) {
+        supplierStarted.await(10, TimeUnit.SECONDS);
+      }
+    }
+    releaseWhenAllWaiting();
+    return results;
+  }
+
+  private void releaseWhenAllWaiting() throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (waitingThreads() < WAITERS && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    releaseSupplier.countDown();
+  }
+
+  private long waitingThreads() {
+    return threads.stream()
+            .filter(thread -> thread.getState() == Thread.State.WAITING)
+            .count();
+  }
+
+  private void awaitRelease() {
+    supplierStarted.countDown();
+    try {
+      releaseSupplier.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  static class TestHelper {
+    void elseCallMe() {
+      System.out.println("else call me");
+    }
+  }
+}